@@ -0,0 +1,42 @@
+package com.studentportal.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a BCrypt hash per strength (log2 rounds). The application uses the
+ * default 10; every login pays one {@code matches}, every created or imported
+ * user one {@code encode}. Each step up doubles the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptBenchmark {
+    
+    @Param({"4", "8", "10", "12"})
+    int strength;
+    
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+    
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("student123");
+    }
+    
+    @Benchmark
+    public String encode() {
+        return encoder.encode("student123");
+    }
+    
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("student123", hash);
+    }
+}
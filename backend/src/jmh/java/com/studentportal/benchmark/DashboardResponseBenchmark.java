@@ -0,0 +1,133 @@
+package com.studentportal.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studentportal.controller.StudentController;
+import com.studentportal.dto.AttestationView;
+import com.studentportal.dto.GradeView;
+import com.studentportal.dto.StudentDashboardStats;
+import com.studentportal.repository.AttestationRepository;
+import com.studentportal.repository.GradeRepository;
+import com.studentportal.repository.StudentSubjectSummaryRepository;
+import com.studentportal.repository.UserRepository;
+import com.studentportal.service.ResourceVersionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory microbenchmark of the controller and serialization side of the student
+ * dashboard response. The repositories are proxy stubs returning fixed synthetic
+ * rows for {@code subjects} subjects and the ETag is fixed, so no query runs: it
+ * measures assembling the response map, the ETag check and, in {@code json}, writing
+ * the body, not the cost of the dashboard endpoint as a whole. {@code notModified}
+ * is a client revalidating with a current If-None-Match.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardResponseBenchmark {
+    
+    private static final long STUDENT_ID = 5L;
+    
+    @Param({"8", "40"})
+    int subjects;
+    
+    private StudentController controller;
+    private ObjectMapper objectMapper;
+    private String etag;
+    
+    @Setup
+    public void setUp() {
+        List<AttestationView> attestations = Fixtures.attestationViews(STUDENT_ID, subjects, 42);
+        List<GradeView> recentGrades = Fixtures.gradeViews(Fixtures.grades(5, 42));
+        StudentDashboardStats stats = new Stats(4.2, 5L * subjects, 10L * subjects, 40L * subjects,
+                100L * subjects, 0.85);
+        
+        controller = new StudentController();
+        Fixtures.inject(controller, "summaryRepository", stub(StudentSubjectSummaryRepository.class, "getDashboardStats", stats));
+        Fixtures.inject(controller, "userRepository", stub(UserRepository.class, "getDashboardStats", stats));
+        Fixtures.inject(controller, "attestationRepository", stub(AttestationRepository.class, "findViewsByStudentId", attestations));
+        Fixtures.inject(controller, "gradeRepository", stub(GradeRepository.class, "findRecentViewsByStudentId", recentGrades));
+        // The version lookup is a query too; its tag is fixed here
+        etag = "\"st" + STUDENT_ID + "-0-0\"";
+        Fixtures.inject(controller, "versions", new ResourceVersionService() {
+            @Override
+            public String studentTag(Long studentId) {
+                return etag;
+            }
+        });
+        objectMapper = Fixtures.objectMapper();
+    }
+    
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> dashboard() {
+        return controller.getDashboard(STUDENT_ID, new ServletWebRequest(new MockHttpServletRequest()));
+    }
+    
+    @Benchmark
+    public byte[] json() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dashboard().getBody());
+    }
+    
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> notModified() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/student/5/dashboard");
+        request.addHeader("If-None-Match", etag);
+        return controller.getDashboard(STUDENT_ID, new ServletWebRequest(request));
+    }
+    
+    // Repository whose one method returns a fixed value
+    private static <T> T stub(Class<T> repository, String method, Object result) {
+        return repository.cast(Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, invoked, args) -> {
+                    if (invoked.getName().equals(method)) {
+                        return result;
+                    }
+                    throw new UnsupportedOperationException(invoked.getName());
+                }));
+    }
+    
+    private record Stats(Double averageGrade, Long completedLabs, Long totalLabs, Long earnedPoints,
+                         Long maxPossiblePoints, Double attendanceRate) implements StudentDashboardStats {
+        
+        @Override
+        public Double getAverageGrade() {
+            return averageGrade;
+        }
+        
+        @Override
+        public Long getCompletedLabs() {
+            return completedLabs;
+        }
+        
+        @Override
+        public Long getTotalLabs() {
+            return totalLabs;
+        }
+        
+        @Override
+        public Long getEarnedPoints() {
+            return earnedPoints;
+        }
+        
+        @Override
+        public Long getMaxPossiblePoints() {
+            return maxPossiblePoints;
+        }
+        
+        @Override
+        public Double getAttendanceRate() {
+            return attendanceRate;
+        }
+    }
+}
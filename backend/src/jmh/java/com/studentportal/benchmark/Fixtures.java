@@ -0,0 +1,152 @@
+package com.studentportal.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studentportal.dto.AttestationView;
+import com.studentportal.dto.GradeView;
+import com.studentportal.dto.LabSubmissionView;
+import com.studentportal.model.*;
+import com.studentportal.security.JwtUtil;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Shared setup for the benchmarks: beans wired by hand the way Spring would wire
+ * them, and deterministic synthetic rows shaped like the ones the API returns.
+ */
+final class Fixtures {
+    
+    // Same values as application.yml
+    static final String JWT_SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    static final long JWT_EXPIRATION = 86_400_000L;
+    
+    private static final LocalDateTime TERM_START = LocalDateTime.of(2024, 9, 2, 9, 0);
+    
+    private Fixtures() {
+    }
+    
+    /** Sets a field normally filled by @Autowired or @Value. */
+    static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + " has no field " + fieldName);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+    
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        inject(jwtUtil, "secret", JWT_SECRET);
+        inject(jwtUtil, "expiration", JWT_EXPIRATION);
+        Method init = ReflectionUtils.findMethod(JwtUtil.class, "init");
+        ReflectionUtils.makeAccessible(init);
+        ReflectionUtils.invokeMethod(init, jwtUtil);
+        return jwtUtil;
+    }
+    
+    /** Configured like the one Spring Boot auto-configures for the controllers. */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+    
+    static List<Grade> grades(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Grade> grades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Grade grade = new Grade();
+            grade.setId((long) i + 1);
+            grade.setStudent(student(i % 25));
+            grade.setSubject(subject(i % 8));
+            grade.setValue(2 + random.nextInt(4));
+            grade.setDescription("Контрольная работа");
+            grade.setCreatedAt(TERM_START.plusHours(random.nextInt(2_000)));
+            grades.add(grade);
+        }
+        return grades;
+    }
+    
+    static List<LabSubmission> labSubmissions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<LabSubmission> submissions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LabTemplate labTemplate = new LabTemplate();
+            labTemplate.setId((long) i % 10 + 1);
+            labTemplate.setTitle("Лабораторная работа №" + (i % 10 + 1));
+            labTemplate.setDescription("Описание задания для лабораторной работы");
+            labTemplate.setSubject(subject(i % 8));
+            labTemplate.setMaxPoints(10);
+            labTemplate.setOrderNumber(i % 10 + 1);
+            labTemplate.setCreatedAt(TERM_START);
+            
+            LabSubmission submission = new LabSubmission();
+            submission.setId((long) i + 1);
+            submission.setLabTemplate(labTemplate);
+            submission.setStudent(student(i % 25));
+            submission.setPoints(5 + random.nextInt(6));
+            submission.setComment("Хорошая работа");
+            submission.setStatus(LabSubmission.SubmissionStatus.GRADED);
+            submission.setSubmittedAt(TERM_START.plusHours(random.nextInt(2_000)));
+            submission.setGradedAt(submission.getSubmittedAt().plusDays(3));
+            submissions.add(submission);
+        }
+        return submissions;
+    }
+    
+    static List<GradeView> gradeViews(List<Grade> grades) {
+        return grades.stream()
+                .map(g -> new GradeView(g.getId(), g.getStudent().getId(), g.getStudent().getFirstName(),
+                        g.getStudent().getLastName(), g.getStudent().getStudentGroup(), g.getSubject().getId(),
+                        g.getSubject().getName(), g.getValue(), g.getDescription(), g.getCreatedAt()))
+                .toList();
+    }
+    
+    static List<LabSubmissionView> labSubmissionViews(List<LabSubmission> submissions) {
+        return submissions.stream()
+                .map(s -> new LabSubmissionView(s.getId(), s.getLabTemplate().getId(), s.getLabTemplate().getTitle(),
+                        s.getLabTemplate().getMaxPoints(), s.getLabTemplate().getSubject().getId(),
+                        s.getLabTemplate().getSubject().getName(), s.getStudent().getId(),
+                        s.getStudent().getFirstName(), s.getStudent().getLastName(), s.getStudent().getStudentGroup(),
+                        s.getPoints(), s.getComment(), s.getStatus(), s.getSubmittedAt(), s.getGradedAt()))
+                .toList();
+    }
+    
+    static List<AttestationView> attestationViews(long studentId, int subjects, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<AttestationView> attestations = new ArrayList<>();
+        for (int s = 0; s < subjects; s++) {
+            for (Attestation.AttestationType type : Attestation.AttestationType.values()) {
+                attestations.add(new AttestationView((long) attestations.size() + 1, studentId, "Анна", "Сидорова",
+                        "БПИ-201", (long) s + 1, "Дисциплина " + (s + 1), type, random.nextInt(100) < 85, null,
+                        TERM_START.plusDays(random.nextInt(120))));
+            }
+        }
+        return attestations;
+    }
+    
+    private static User student(int n) {
+        User student = new User();
+        student.setId((long) n + 1);
+        student.setEmail("student" + (n + 1) + "@example.com");
+        student.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z2eXy5n1Yq2bFjQ4U8l6y5xK");
+        student.setFirstName("Анна");
+        student.setLastName("Сидорова");
+        student.setRole(User.Role.STUDENT);
+        student.setStudentGroup("БПИ-201");
+        return student;
+    }
+    
+    private static Subject subject(int n) {
+        Subject subject = new Subject();
+        subject.setId((long) n + 1);
+        subject.setName("Дисциплина " + (n + 1));
+        subject.setDescription("Описание дисциплины");
+        return subject;
+    }
+}
@@ -0,0 +1,64 @@
+package com.studentportal.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studentportal.dto.GradeView;
+import com.studentportal.dto.LabSubmissionView;
+import com.studentportal.model.Grade;
+import com.studentportal.model.LabSubmission;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization of grade and lab submission lists: JPA entities with their
+ * full student, subject and template graphs, as the endpoints used to return them,
+ * against the flat view records returned now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+    
+    @Param({"50", "1000"})
+    int rows;
+    
+    private ObjectMapper objectMapper;
+    private List<Grade> grades;
+    private List<GradeView> gradeViews;
+    private List<LabSubmission> labSubmissions;
+    private List<LabSubmissionView> labSubmissionViews;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Fixtures.objectMapper();
+        grades = Fixtures.grades(rows, 42);
+        gradeViews = Fixtures.gradeViews(grades);
+        labSubmissions = Fixtures.labSubmissions(rows, 42);
+        labSubmissionViews = Fixtures.labSubmissionViews(labSubmissions);
+    }
+    
+    @Benchmark
+    public byte[] gradeEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(grades);
+    }
+    
+    @Benchmark
+    public byte[] gradeViews() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(gradeViews);
+    }
+    
+    @Benchmark
+    public byte[] labSubmissionEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(labSubmissions);
+    }
+    
+    @Benchmark
+    public byte[] labSubmissionViews() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(labSubmissionViews);
+    }
+}
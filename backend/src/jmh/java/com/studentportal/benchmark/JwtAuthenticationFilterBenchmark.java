@@ -0,0 +1,96 @@
+package com.studentportal.benchmark;
+
+import com.studentportal.security.JwtAuthenticationFilter;
+import com.studentportal.security.JwtUtil;
+import com.studentportal.security.TokenRevocations;
+import com.studentportal.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtAuthenticationFilter} end to end, from the Authorization header to an
+ * authenticated security context: a token already in {@link VerifiedTokenCache},
+ * tokens that miss it (many distinct tokens cycling through a small cache, so each
+ * one is verified and cached again), and a request without a token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+    
+    private static final int DISTINCT_TOKENS = 4096;
+    private static final FilterChain CHAIN = (request, response) -> { };
+    
+    private JwtAuthenticationFilter warmFilter;
+    private JwtAuthenticationFilter coldFilter;
+    private String token;
+    private String[] tokens;
+    private int next;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    
+    @Setup
+    public void setUp() throws Exception {
+        JwtUtil jwtUtil = Fixtures.jwtUtil();
+        token = jwtUtil.generateToken("student@example.com", "STUDENT", 5L);
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = jwtUtil.generateToken("student" + i + "@example.com", "STUDENT", (long) i);
+        }
+        warmFilter = filter(jwtUtil, 10_000);
+        coldFilter = filter(jwtUtil, 16);
+        warmFilter.doFilter(request(token), response, CHAIN);
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Benchmark
+    public Object cachedToken() throws Exception {
+        return authenticate(warmFilter, token);
+    }
+    
+    @Benchmark
+    public Object uncachedToken() throws Exception {
+        next = (next + 1) % DISTINCT_TOKENS;
+        return authenticate(coldFilter, tokens[next]);
+    }
+    
+    @Benchmark
+    public Object anonymous() throws Exception {
+        return authenticate(warmFilter, null);
+    }
+    
+    private Object authenticate(JwtAuthenticationFilter filter, String jwt) throws Exception {
+        try {
+            filter.doFilter(request(jwt), response, CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+    
+    private static MockHttpServletRequest request(String jwt) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/student/5/dashboard");
+        if (jwt != null) {
+            request.addHeader("Authorization", "Bearer " + jwt);
+        }
+        return request;
+    }
+    
+    private static JwtAuthenticationFilter filter(JwtUtil jwtUtil, long cacheSize) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        Fixtures.inject(filter, "jwtUtil", jwtUtil);
+        Fixtures.inject(filter, "verifiedTokenCache", new VerifiedTokenCache(cacheSize, new SimpleMeterRegistry()));
+        // Not started: no cutoffs, so every lookup misses as it does for most users
+        Fixtures.inject(filter, "tokenRevocations", new TokenRevocations(null, Fixtures.JWT_EXPIRATION, Duration.ofSeconds(30)));
+        return filter;
+    }
+}
@@ -0,0 +1,45 @@
+package com.studentportal.benchmark;
+
+import com.studentportal.security.AuthenticatedUser;
+import com.studentportal.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtUtil} on its own: signing a token at login, the single-parse
+ * {@code parseToken} used by the filter, and {@code validateToken}, which
+ * parses the token twice.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+    
+    private JwtUtil jwtUtil;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtil = Fixtures.jwtUtil();
+        token = jwtUtil.generateToken("student@example.com", "STUDENT", 5L);
+    }
+    
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("student@example.com", "STUDENT", 5L);
+    }
+    
+    @Benchmark
+    public AuthenticatedUser parse() {
+        return jwtUtil.parseToken(token);
+    }
+    
+    @Benchmark
+    public Boolean validate() {
+        return jwtUtil.validateToken(token, "student@example.com");
+    }
+}
@@ -0,0 +1,75 @@
+package com.studentportal.benchmark;
+
+import com.studentportal.security.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Overhead of {@link LoginRateLimiter#tryAcquire} under contention: all threads
+ * on one account/address (CAS contention on a single bucket), every thread on
+ * its own keys, and the reject path of an exhausted bucket.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class LoginRateLimiterBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class OpenLimiter {
+        // Refills faster than it can be drained, so every call takes the CAS path
+        LoginRateLimiter limiter = new LoginRateLimiter(
+                Integer.MAX_VALUE, Duration.of(1, ChronoUnit.NANOS),
+                Integer.MAX_VALUE, Duration.of(1, ChronoUnit.NANOS),
+                100_000, new SimpleMeterRegistry());
+    }
+    
+    @State(Scope.Benchmark)
+    public static class ExhaustedLimiter {
+        LoginRateLimiter limiter = new LoginRateLimiter(
+                1, Duration.ofHours(1),
+                1, Duration.ofHours(1),
+                100_000, new SimpleMeterRegistry());
+        
+        @Setup
+        public void drain() {
+            limiter.tryAcquire("student@example.com", "10.0.0.1");
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        private static final AtomicInteger SEQUENCE = new AtomicInteger();
+        String email;
+        String address;
+        
+        @Setup
+        public void init() {
+            int n = SEQUENCE.incrementAndGet();
+            email = "student" + n + "@example.com";
+            address = "10.0.1." + n;
+        }
+    }
+    
+    @Benchmark
+    public long sameKey(OpenLimiter state) {
+        return state.limiter.tryAcquire("student@example.com", "10.0.0.1");
+    }
+    
+    @Benchmark
+    public long distinctKeys(OpenLimiter state, ThreadKeys keys) {
+        return state.limiter.tryAcquire(keys.email, keys.address);
+    }
+    
+    @Benchmark
+    public long rejected(ExhaustedLimiter state) {
+        return state.limiter.tryAcquire("student@example.com", "10.0.0.1");
+    }
+}
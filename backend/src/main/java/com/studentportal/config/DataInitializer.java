@@ -2,6 +2,7 @@ package com.studentportal.config;
 
 import com.studentportal.model.*;
 import com.studentportal.repository.*;
+import com.studentportal.service.StudentSummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -41,11 +43,11 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private TeacherSubjectRepository teacherSubjectRepository;
     
+    @Autowired
+    private StudentSummaryService summaryService;
+    
     @Override
     public void run(String... args) throws Exception {
-        // Fix existing lab submissions with invalid points
-        fixInvalidLabSubmissions();
-        
         if (userRepository.count() == 0) {
             System.out.println("🔄 Initializing database with test data...");
             
@@ -126,14 +128,16 @@ public class DataInitializer implements CommandLineRunner {
             
             // Create Attendance
             LocalDate today = LocalDate.now();
+            List<Attendance> attendances = new ArrayList<>();
             for (User student : students) {
                 for (int i = 0; i < 20; i++) {
                     LocalDate date = today.minusDays(i);
                     Subject subject = i % 4 == 0 ? programming : i % 4 == 1 ? algorithms : i % 4 == 2 ? databases : webdev;
                     boolean present = Math.random() > 0.15; // 85% attendance
-                    createAttendance(student, subject, date, present);
+                    attendances.add(newAttendance(student, subject, date, present));
                 }
             }
+            attendanceRepository.bulkSave(attendances);
             
             // Create Attestations
             createAttestation(student1, programming, Attestation.AttestationType.FIRST, true, "Допущен");
@@ -166,6 +170,14 @@ public class DataInitializer implements CommandLineRunner {
             System.out.println("  - " + gradeRepository.count() + " grades");
             System.out.println("  - " + attendanceRepository.count() + " attendance records");
             System.out.println("  - " + attestationRepository.count() + " attestations");
+            
+            // The demo data above is saved without summary refreshes; it is small enough to summarize here
+            int rows = summaryService.rebuildAll();
+            System.out.println("📊 Rebuilt " + rows + " student summaries");
+        } else if (!summaryService.isBackfilled()) {
+            // Rebuilding a large database would hold up startup; dashboards are computed
+            // from the source tables until it is done
+            System.out.println("⚠️ Student summaries are not built, run POST /api/admin/summaries/rebuild");
         }
     }
     
@@ -205,6 +217,7 @@ public class DataInitializer implements CommandLineRunner {
     private void createLabSubmissionsForStudent(User student, List<LabTemplate> templates) {
         // Student completes 60-80% of labs with varying grades
         int completedCount = (int) (templates.size() * (0.6 + Math.random() * 0.2));
+        List<LabSubmission> submissions = new ArrayList<>();
         
         for (int i = 0; i < Math.min(completedCount, templates.size()); i++) {
             LabTemplate template = templates.get(i);
@@ -224,8 +237,9 @@ public class DataInitializer implements CommandLineRunner {
             submission.setComment(points >= maxPoints * 0.9 ? "Отлично!" : 
                                  points >= maxPoints * 0.8 ? "Хорошо" : "Зачтено");
             
-            labSubmissionRepository.save(submission);
+            submissions.add(submission);
         }
+        labSubmissionRepository.bulkSave(submissions);
     }
     
     private void createGrades(User student, Subject subject, int value, String description) {
@@ -238,13 +252,13 @@ public class DataInitializer implements CommandLineRunner {
         gradeRepository.save(grade);
     }
     
-    private void createAttendance(User student, Subject subject, LocalDate date, boolean present) {
+    private Attendance newAttendance(User student, Subject subject, LocalDate date, boolean present) {
         Attendance attendance = new Attendance();
         attendance.setStudent(student);
         attendance.setSubject(subject);
         attendance.setDate(date);
         attendance.setPresent(present);
-        attendanceRepository.save(attendance);
+        return attendance;
     }
     
     private void createAttestation(User student, Subject subject, Attestation.AttestationType type, 
@@ -272,18 +286,6 @@ public class DataInitializer implements CommandLineRunner {
             this.orderNumber = orderNumber;
         }
     }
-    
-    private void fixInvalidLabSubmissions() {
-        List<LabSubmission> allSubmissions = labSubmissionRepository.findAll();
-        for (LabSubmission submission : allSubmissions) {
-            if (submission.getPoints() > submission.getLabTemplate().getMaxPoints()) {
-                System.out.println("⚠️  Fixing invalid points for submission ID " + submission.getId() + 
-                    ": " + submission.getPoints() + " -> " + submission.getLabTemplate().getMaxPoints());
-                submission.setPoints(submission.getLabTemplate().getMaxPoints());
-                labSubmissionRepository.save(submission);
-            }
-        }
-    }
 }
 
 
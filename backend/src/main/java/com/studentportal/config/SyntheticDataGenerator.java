@@ -0,0 +1,336 @@
+package com.studentportal.config;
+
+import com.studentportal.service.ReferenceDataService;
+import com.studentportal.service.StudentSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the database with a large synthetic dataset for load tests and benchmarks.
+ *
+ * Active only with the {@code dataset} profile; sizes are set in
+ * {@code application-dataset.yml}. Students come in groups, every group takes the
+ * same subjects, and each (student, subject) pair gets attendance, grades, lab
+ * submissions and attestations. Rows go in through JDBC batch inserts. PostgreSQL is
+ * required, like for the migrations and the sequence catch-up in
+ * {@code afterMigrate.sql}; on any other database the generator stops before writing.
+ * Ids continue from the current maximum and the sequences are moved past them
+ * afterwards. On an empty database the same seed always produces the same rows.
+ *
+ * Runs once the application is up, after {@link DataInitializer}. Batches commit one
+ * by one, so a finished run is recorded in synthetic_dataset after its last step and
+ * later starts do nothing. Generated users ({@code gen-...@example.com}) without that
+ * record are left over from an interrupted run; the generator then refuses to start,
+ * as the database has to be recreated.
+ */
+@Component
+@Profile("dataset")
+public class SyntheticDataGenerator {
+    
+    private static final String[] FIRST_NAMES = {"Анна", "Иван", "Мария", "Пётр", "Елена", "Алексей",
+            "Ольга", "Дмитрий", "Наталья", "Сергей", "Татьяна", "Андрей"};
+    private static final String[] LAST_NAMES = {"Иванов", "Петров", "Смирнов", "Кузнецов", "Попов", "Васильев",
+            "Соколов", "Михайлов", "Новиков", "Фёдоров", "Морозов", "Волков"};
+    private static final int[] MAX_POINTS = {10, 15, 20};
+    private static final LocalDate TERM_START = LocalDate.of(2024, 9, 2);
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private StudentSummaryService summaryService;
+    
+    @Autowired
+    private ReferenceDataService referenceData;
+    
+    @Value("${dataset.seed:42}")
+    private long seed;
+    
+    @Value("${dataset.students:50000}")
+    private int students;
+    
+    @Value("${dataset.group-size:25}")
+    private int groupSize;
+    
+    @Value("${dataset.teachers:1000}")
+    private int teachers;
+    
+    @Value("${dataset.teachers-per-subject:2}")
+    private int teachersPerSubject;
+    
+    @Value("${dataset.subjects:500}")
+    private int subjects;
+    
+    @Value("${dataset.lab-templates:5000}")
+    private int labTemplates;
+    
+    @Value("${dataset.subjects-per-group:8}")
+    private int subjectsPerGroup;
+    
+    @Value("${dataset.attendance:20000000}")
+    private long attendance;
+    
+    @Value("${dataset.grades-per-subject:5}")
+    private int gradesPerSubject;
+    
+    @Value("${dataset.lab-completion:0.7}")
+    private double labCompletion;
+    
+    @Value("${dataset.password:dataset123}")
+    private String password;
+    
+    @Value("${dataset.batch-size:5000}")
+    private int batchSize;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void generate() {
+        validateSizes();
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            throw new IllegalStateException("Synthetic dataset requires PostgreSQL, found " + database);
+        }
+        List<Long> completed = jdbcTemplate.queryForList("SELECT seed FROM synthetic_dataset", Long.class);
+        if (!completed.isEmpty()) {
+            System.out.println("ℹ️  Synthetic dataset already present (seed " + completed.get(0) + "), skipping");
+            return;
+        }
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE 'gen-%@example.com'", Integer.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Incomplete synthetic dataset found (" + existing
+                    + " generated users, no completion record): a previous run was interrupted, recreate the database");
+        }
+        long started = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(seed);
+        System.out.println("🔄 Generating synthetic dataset (seed " + seed + ")...");
+        
+        long userBase = maxId("users");
+        long subjectBase = maxId("subjects");
+        long templateBase = maxId("lab_templates");
+        long teacherBase = userBase + students;
+        String passwordHash = passwordEncoder.encode(password);
+        
+        try (Batch users = new Batch("INSERT INTO users (id, email, password, first_name, last_name, role, "
+                + "student_group, department) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < students; i++) {
+                users.add(userBase + i + 1, String.format("gen-student-%06d@example.com", i + 1), passwordHash,
+                        pick(FIRST_NAMES, random), pick(LAST_NAMES, random), "STUDENT", groupName(i / groupSize), null);
+            }
+            for (int i = 0; i < teachers; i++) {
+                users.add(teacherBase + i + 1, String.format("gen-teacher-%05d@example.com", i + 1), passwordHash,
+                        pick(FIRST_NAMES, random), pick(LAST_NAMES, random), "TEACHER", null,
+                        "Кафедра " + (i % 20 + 1));
+            }
+        }
+        
+        try (Batch rows = new Batch("INSERT INTO subjects (id, name, description) VALUES (?, ?, ?)")) {
+            for (int s = 0; s < subjects; s++) {
+                rows.add(subjectBase + s + 1, "Дисциплина " + (s + 1), "Сгенерированный предмет");
+            }
+        }
+        
+        try (Batch rows = new Batch("INSERT INTO teacher_subjects (id, teacher_id, subject_id) VALUES (?, ?, ?)")) {
+            long id = maxId("teacher_subjects");
+            for (int s = 0; s < subjects && teachers > 0; s++) {
+                Set<Integer> assigned = new LinkedHashSet<>();
+                for (int k = 0; k < teachersPerSubject; k++) {
+                    assigned.add((s + k * subjects) % teachers);
+                }
+                for (int t : assigned) {
+                    rows.add(++id, teacherBase + t + 1, subjectBase + s + 1);
+                }
+            }
+        }
+        
+        // Template t belongs to subject t % subjects, so every subject gets the same share
+        List<List<long[]>> templatesBySubject = new ArrayList<>(subjects);
+        for (int s = 0; s < subjects; s++) {
+            templatesBySubject.add(new ArrayList<>());
+        }
+        try (Batch rows = new Batch("INSERT INTO lab_templates (id, title, description, subject_id, max_points, "
+                + "order_number, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int t = 0; t < labTemplates && subjects > 0; t++) {
+                int subject = t % subjects;
+                int order = t / subjects + 1;
+                int maxPoints = MAX_POINTS[random.nextInt(MAX_POINTS.length)];
+                long id = templateBase + t + 1;
+                rows.add(id, "Лабораторная работа №" + order, null, subjectBase + subject + 1, maxPoints, order,
+                        TERM_START.atStartOfDay());
+                templatesBySubject.get(subject).add(new long[]{id, maxPoints});
+            }
+        }
+        
+        int groups = (students + groupSize - 1) / groupSize;
+        int perGroup = Math.min(subjectsPerGroup, subjects);
+        long pairs = (long) students * perGroup;
+        int classes = pairs > 0 ? (int) Math.max(1, attendance / pairs) : 0;
+        
+        long attendanceStart = maxId("attendance");
+        long gradeStart = maxId("grades");
+        long submissionStart = maxId("lab_submissions");
+        long attestationStart = maxId("attestations");
+        long attendanceId = attendanceStart;
+        long gradeId = gradeStart;
+        long submissionId = submissionStart;
+        long attestationId = attestationStart;
+        try (Batch attendanceRows = new Batch("INSERT INTO attendance (id, student_id, subject_id, date, present, note) "
+                + "VALUES (?, ?, ?, ?, ?, ?)");
+             Batch gradeRows = new Batch("INSERT INTO grades (id, student_id, subject_id, value, description, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)");
+             Batch submissionRows = new Batch("INSERT INTO lab_submissions (id, lab_template_id, student_id, points, "
+                + "comment, status, submitted_at, graded_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+             Batch attestationRows = new Batch("INSERT INTO attestations (id, student_id, subject_id, type, passed, "
+                + "comment, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int g = 0; g < groups; g++) {
+                int[] groupSubjects = random.ints(0, subjects).distinct().limit(perGroup).toArray();
+                int first = g * groupSize;
+                int last = Math.min(students, first + groupSize);
+                for (int subject : groupSubjects) {
+                    long subjectId = subjectBase + subject + 1;
+                    for (int i = first; i < last; i++) {
+                        long studentId = userBase + i + 1;
+                        for (int c = 0; c < classes; c++) {
+                            attendanceRows.add(++attendanceId, studentId, subjectId, TERM_START.plusDays(c * 3L),
+                                    random.nextInt(100) < 85, null);
+                        }
+                        for (int k = 0; k < gradesPerSubject; k++) {
+                            gradeRows.add(++gradeId, studentId, subjectId, 2 + random.nextInt(4), "Контрольная работа",
+                                    termTime(random));
+                        }
+                        for (long[] template : templatesBySubject.get(subject)) {
+                            if (random.nextDouble() >= labCompletion) {
+                                continue;
+                            }
+                            int maxPoints = (int) template[1];
+                            LocalDateTime submitted = termTime(random);
+                            boolean graded = random.nextInt(100) < 80;
+                            submissionRows.add(++submissionId, template[0], studentId,
+                                    graded ? maxPoints / 2 + random.nextInt(maxPoints - maxPoints / 2 + 1) : 0, null,
+                                    graded ? "GRADED" : "PENDING", submitted, graded ? submitted.plusDays(3) : null);
+                        }
+                        for (String type : new String[]{"FIRST", "SECOND", "FINAL"}) {
+                            attestationRows.add(++attestationId, studentId, subjectId, type, random.nextInt(100) < 85,
+                                    null, termTime(random));
+                        }
+                    }
+                }
+            }
+        }
+        
+        // Same catch-up as after migrations: sequences continue past the generated ids
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/afterMigrate.sql")).execute(dataSource);
+        int summaries = summaryService.rebuildAll();
+        referenceData.subjectsChanged();
+        referenceData.usersChanged();
+        jdbcTemplate.update("INSERT INTO synthetic_dataset (id, seed, completed_at) VALUES (1, ?, now())", seed);
+        
+        System.out.println("\n✅ Synthetic dataset generated in " + (System.currentTimeMillis() - started) / 1000 + " s:");
+        System.out.println("  - " + students + " students in " + groups + " groups, " + teachers + " teachers");
+        System.out.println("  - " + subjects + " subjects, " + labTemplates + " lab templates");
+        System.out.println("  - " + (attendanceId - attendanceStart) + " attendance records, " + (gradeId - gradeStart)
+                + " grades");
+        System.out.println("  - " + (submissionId - submissionStart) + " lab submissions, "
+                + (attestationId - attestationStart) + " attestations");
+        System.out.println("  - " + summaries + " student summaries");
+        System.out.println("  Users: gen-student-000001@example.com, gen-teacher-00001@example.com / " + password);
+    }
+    
+    // Fails before anything is written rather than halfway through
+    private void validateSizes() {
+        List<String> problems = new ArrayList<>();
+        if (students < 0 || teachers < 0 || labTemplates < 0 || attendance < 0 || gradesPerSubject < 0
+                || subjectsPerGroup < 0) {
+            problems.add("counts must not be negative");
+        }
+        if (groupSize < 1) {
+            problems.add("dataset.group-size must be at least 1");
+        }
+        if (subjects < 1) {
+            problems.add("dataset.subjects must be at least 1");
+        }
+        if (teachersPerSubject < 0 || teachersPerSubject > teachers) {
+            problems.add("dataset.teachers-per-subject must be between 0 and dataset.teachers");
+        }
+        if (labCompletion < 0 || labCompletion > 1) {
+            problems.add("dataset.lab-completion must be between 0 and 1");
+        }
+        if (batchSize < 1) {
+            problems.add("dataset.batch-size must be at least 1");
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Invalid synthetic dataset settings: " + String.join("; ", problems));
+        }
+    }
+    
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max != null ? max : 0L;
+    }
+    
+    private static String groupName(int group) {
+        return String.format("GEN-%04d", group + 1);
+    }
+    
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+    
+    private static LocalDateTime termTime(SplittableRandom random) {
+        return TERM_START.atTime(9, 0).plusDays(random.nextInt(120)).plusMinutes(random.nextInt(600));
+    }
+    
+    // Collects rows and sends them as one JDBC batch every batchSize rows; close() sends the rest
+    private class Batch implements AutoCloseable {
+        
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+        
+        Batch(String sql) {
+            this.sql = sql;
+        }
+        
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+        
+        private void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+        
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
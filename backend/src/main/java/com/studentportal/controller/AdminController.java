@@ -1,14 +1,31 @@
 package com.studentportal.controller;
 
+import com.studentportal.dto.*;
 import com.studentportal.model.*;
 import com.studentportal.repository.*;
+import com.studentportal.security.TokenRevocations;
+import com.studentportal.service.CustomUserDetailsService;
+import com.studentportal.service.ExportService;
+import com.studentportal.service.ReferenceDataService;
+import com.studentportal.service.StudentSummaryService;
+import com.studentportal.service.UserImportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -45,23 +62,71 @@ public class AdminController {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    
+    @Autowired
+    private TokenRevocations tokenRevocations;
+    
+    @Autowired
+    private StudentSummaryService summaryService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private UserImportService userImportService;
+    
+    @Autowired
+    private ReferenceDataService referenceData;
+    
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    
     // Users Management
+    // List endpoints below are keyset-paged on id: pass the previous page's nextCursor as "after"
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+    public ResponseEntity<CursorPage<UserView>> getAllUsers(@RequestParam(required = false) Long after,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) List<User.Role> role,
+                                                            @RequestParam(required = false) String group) {
+        int size = pageSize(limit);
+        List<User.Role> roles = role == null || role.isEmpty() ? List.copyOf(EnumSet.allOf(User.Role.class)) : role;
+        return ResponseEntity.ok(CursorPage.of(
+                userRepository.findPage(cursor(after), roles, group, Limit.of(size + 1)), size, UserView::id));
     }
     
     @PostMapping("/users")
     public ResponseEntity<User> createUser(@RequestBody User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         User savedUser = userRepository.save(user);
+        userDetailsService.evict(savedUser.getEmail());
+        referenceData.usersChanged();
         return ResponseEntity.ok(savedUser);
     }
     
+    // Bulk import from the raw request body (format=csv|ndjson); the response is an NDJSON
+    // report of rejected rows and progress, ending with a "done" line
+    @PostMapping("/users/import")
+    public void importUsers(@RequestParam(defaultValue = "csv") String format,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        ExportService.Format importFormat = ExportService.Format.parse(format);
+        if (importFormat == null) {
+            rejectFormat(response, format);
+            return;
+        }
+        response.setContentType(ExportService.Format.NDJSON.getContentType());
+        userImportService.importUsers(request.getInputStream(), importFormat, response.getOutputStream());
+    }
+    
     @PutMapping("/users/{id}")
     public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User user) {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        String previousEmail = existingUser.getEmail();
+        User.Role previousRole = existingUser.getRole();
+        boolean passwordChanged = false;
         
         existingUser.setFirstName(user.getFirstName());
         existingUser.setLastName(user.getLastName());
@@ -74,64 +139,53 @@ public class AdminController {
         // BCrypt хеш всегда начинается с $2a$ или $2b$
         if (user.getPassword() != null && !user.getPassword().isEmpty() && !user.getPassword().startsWith("$2")) {
             existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
+            passwordChanged = true;
         }
         
         User updatedUser = userRepository.save(existingUser);
+        // Issued tokens carry the old email and role; a new password also ends old sessions
+        if (passwordChanged || previousRole != updatedUser.getRole() || !previousEmail.equals(updatedUser.getEmail())) {
+            tokenRevocations.revoke(previousEmail);
+        }
+        userDetailsService.evict(previousEmail);
+        userDetailsService.evict(updatedUser.getEmail());
+        referenceData.usersChanged();
         return ResponseEntity.ok(updatedUser);
     }
     
+    // Set-based: one DELETE per dependent table, row counts in the response
     @DeleteMapping("/users/{id}")
     @Transactional
-    public ResponseEntity<?> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Integer>> deleteUser(@PathVariable Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        // Удаляем все связанные записи
-        // Удаляем оценки
-        List<Grade> grades = gradeRepository.findByStudentId(id);
-        if (!grades.isEmpty()) {
-            gradeRepository.deleteAll(grades);
-        }
-        
-        // Удаляем посещаемость
-        List<Attendance> attendances = attendanceRepository.findByStudentId(id);
-        if (!attendances.isEmpty()) {
-            attendanceRepository.deleteAll(attendances);
-        }
-        
-        // Удаляем аттестации
-        List<Attestation> attestations = attestationRepository.findByStudentId(id);
-        if (!attestations.isEmpty()) {
-            attestationRepository.deleteAll(attestations);
-        }
-        
-        // Удаляем лабораторные работы
-        List<LabSubmission> labSubmissions = labSubmissionRepository.findByStudentId(id);
-        if (!labSubmissions.isEmpty()) {
-            labSubmissionRepository.deleteAll(labSubmissions);
-        }
-        
-        // Удаляем связи преподавателя с предметами
-        List<TeacherSubject> teacherSubjects = teacherSubjectRepository.findByTeacherId(id);
-        if (!teacherSubjects.isEmpty()) {
-            teacherSubjectRepository.deleteAll(teacherSubjects);
-        }
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        deleted.put("grades", gradeRepository.deleteByStudentId(id));
+        deleted.put("attendance", attendanceRepository.deleteByStudentId(id));
+        deleted.put("attestations", attestationRepository.deleteByStudentId(id));
+        deleted.put("labSubmissions", labSubmissionRepository.deleteByStudentId(id));
+        deleted.put("teacherSubjects", teacherSubjectRepository.deleteByTeacherId(id));
+        deleted.put("summaries", summaryService.deleteForStudent(id));
+        userRepository.delete(user);
+        deleted.put("users", 1);
         
-        // Удаляем пользователя
-        userRepository.deleteById(id);
-        
-        return ResponseEntity.ok().build();
+        tokenRevocations.revoke(user.getEmail());
+        userDetailsService.evict(user.getEmail());
+        referenceData.usersChanged();
+        return ResponseEntity.ok(deleted);
     }
     
     // Subjects Management
     @GetMapping("/subjects")
     public ResponseEntity<List<Subject>> getAllSubjects() {
-        return ResponseEntity.ok(subjectRepository.findAll());
+        return ResponseEntity.ok(referenceData.getSubjects());
     }
     
     @PostMapping("/subjects")
     public ResponseEntity<Subject> createSubject(@RequestBody Subject subject) {
         Subject savedSubject = subjectRepository.save(subject);
+        referenceData.subjectsChanged();
         return ResponseEntity.ok(savedSubject);
     }
     
@@ -139,125 +193,308 @@ public class AdminController {
     public ResponseEntity<Subject> updateSubject(@PathVariable Long id, @RequestBody Subject subject) {
         subject.setId(id);
         Subject updatedSubject = subjectRepository.save(subject);
+        referenceData.subjectsChanged();
         return ResponseEntity.ok(updatedSubject);
     }
     
+    // Removes everything recorded for the subject, set-based like deleteUser
     @DeleteMapping("/subjects/{id}")
-    public ResponseEntity<?> deleteSubject(@PathVariable Long id) {
-        subjectRepository.deleteById(id);
-        return ResponseEntity.ok().build();
+    @Transactional
+    public ResponseEntity<Map<String, Integer>> deleteSubject(@PathVariable Long id) {
+        Subject subject = subjectRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Subject not found"));
+        
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        deleted.put("grades", gradeRepository.deleteBySubjectId(id));
+        deleted.put("attendance", attendanceRepository.deleteBySubjectId(id));
+        deleted.put("attestations", attestationRepository.deleteBySubjectId(id));
+        deleted.put("labSubmissions", labSubmissionRepository.deleteBySubjectId(id));
+        deleted.put("labTemplates", labTemplateRepository.deleteBySubjectId(id));
+        deleted.put("teacherSubjects", teacherSubjectRepository.deleteBySubjectId(id));
+        deleted.put("summaries", summaryService.deleteForSubject(id));
+        subjectRepository.delete(subject);
+        deleted.put("subjects", 1);
+        
+        referenceData.subjectsChanged();
+        return ResponseEntity.ok(deleted);
     }
     
     // Grades Management
     @GetMapping("/grades")
-    public ResponseEntity<List<Grade>> getAllGrades() {
-        return ResponseEntity.ok(gradeRepository.findAll());
+    public ResponseEntity<CursorPage<GradeView>> getAllGrades(@RequestParam(required = false) Long after,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) Long studentId,
+                                                              @RequestParam(required = false) Long subjectId,
+                                                              @RequestParam(required = false) String group,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int size = pageSize(limit);
+        return ResponseEntity.ok(CursorPage.of(
+                gradeRepository.findPage(cursor(after), studentId, subjectId, group,
+                        startOfDay(from), startOfNextDay(to), Limit.of(size + 1)),
+                size, GradeView::id));
     }
     
     @PutMapping("/grades/{id}")
+    @Transactional
     public ResponseEntity<Grade> updateGrade(@PathVariable Long id, @RequestBody Grade grade) {
+        gradeRepository.findById(id).ifPresent(summaryService::refresh);
         grade.setId(id);
         Grade updatedGrade = gradeRepository.save(grade);
+        summaryService.refresh(updatedGrade);
         return ResponseEntity.ok(updatedGrade);
     }
     
     @DeleteMapping("/grades/{id}")
+    @Transactional
     public ResponseEntity<?> deleteGrade(@PathVariable Long id) {
-        gradeRepository.deleteById(id);
+        gradeRepository.findById(id).ifPresent(grade -> {
+            gradeRepository.delete(grade);
+            summaryService.refresh(grade);
+        });
         return ResponseEntity.ok().build();
     }
     
     // Lab Templates Management
     @GetMapping("/lab-templates")
-    public ResponseEntity<List<LabTemplate>> getAllLabTemplates() {
-        return ResponseEntity.ok(labTemplateRepository.findAll());
+    public ResponseEntity<List<LabTemplateView>> getAllLabTemplates() {
+        return ResponseEntity.ok(referenceData.getLabTemplates());
     }
     
     @GetMapping("/lab-templates/subject/{subjectId}")
-    public ResponseEntity<List<LabTemplate>> getLabTemplatesBySubject(@PathVariable Long subjectId) {
-        return ResponseEntity.ok(labTemplateRepository.findBySubject_IdOrderByOrderNumberAsc(subjectId));
+    public ResponseEntity<List<LabTemplateView>> getLabTemplatesBySubject(@PathVariable Long subjectId) {
+        return ResponseEntity.ok(referenceData.getLabTemplatesBySubject(subjectId));
     }
     
     @PostMapping("/lab-templates")
+    @Transactional
     public ResponseEntity<LabTemplate> createLabTemplate(@RequestBody LabTemplate labTemplate) {
         LabTemplate savedLabTemplate = labTemplateRepository.save(labTemplate);
+        summaryService.refreshSubject(savedLabTemplate.getSubject().getId());
+        referenceData.labTemplatesChanged();
         return ResponseEntity.ok(savedLabTemplate);
     }
     
     @PutMapping("/lab-templates/{id}")
+    @Transactional
     public ResponseEntity<LabTemplate> updateLabTemplate(@PathVariable Long id, @RequestBody LabTemplate labTemplate) {
+        labTemplateRepository.findById(id)
+                .ifPresent(existing -> summaryService.refreshSubject(existing.getSubject().getId()));
         labTemplate.setId(id);
         LabTemplate updatedLabTemplate = labTemplateRepository.save(labTemplate);
+        summaryService.refreshSubject(updatedLabTemplate.getSubject().getId());
+        referenceData.labTemplatesChanged();
         return ResponseEntity.ok(updatedLabTemplate);
     }
     
     @DeleteMapping("/lab-templates/{id}")
+    @Transactional
     public ResponseEntity<?> deleteLabTemplate(@PathVariable Long id) {
-        labTemplateRepository.deleteById(id);
+        labTemplateRepository.findById(id).ifPresent(labTemplate -> {
+            labTemplateRepository.delete(labTemplate);
+            summaryService.refreshSubject(labTemplate.getSubject().getId());
+            referenceData.labTemplatesChanged();
+        });
         return ResponseEntity.ok().build();
     }
     
     // Lab Submissions Management
     @GetMapping("/lab-submissions")
-    public ResponseEntity<List<LabSubmission>> getAllLabSubmissions() {
-        return ResponseEntity.ok(labSubmissionRepository.findAll());
+    public ResponseEntity<CursorPage<LabSubmissionView>> getAllLabSubmissions(@RequestParam(required = false) Long after,
+                                                                              @RequestParam(required = false) Integer limit,
+                                                                              @RequestParam(required = false) Long studentId,
+                                                                              @RequestParam(required = false) Long subjectId,
+                                                                              @RequestParam(required = false) String group,
+                                                                              @RequestParam(required = false) LabSubmission.SubmissionStatus status,
+                                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int size = pageSize(limit);
+        return ResponseEntity.ok(CursorPage.of(
+                labSubmissionRepository.findPage(cursor(after), studentId, subjectId, group, status,
+                        startOfDay(from), startOfNextDay(to), Limit.of(size + 1)),
+                size, LabSubmissionView::id));
     }
     
     @GetMapping("/lab-submissions/student/{studentId}")
-    public ResponseEntity<List<LabSubmission>> getLabSubmissionsByStudent(@PathVariable Long studentId) {
-        return ResponseEntity.ok(labSubmissionRepository.findByStudentId(studentId));
+    public ResponseEntity<List<LabSubmissionView>> getLabSubmissionsByStudent(@PathVariable Long studentId) {
+        return ResponseEntity.ok(labSubmissionRepository.findViewsByStudentId(studentId));
     }
     
     @PutMapping("/lab-submissions/{id}")
+    @Transactional
     public ResponseEntity<LabSubmission> updateLabSubmission(@PathVariable Long id, @RequestBody LabSubmission labSubmission) {
+        labSubmissionRepository.findById(id).ifPresent(summaryService::refresh);
         labSubmission.setId(id);
         LabSubmission updatedLabSubmission = labSubmissionRepository.save(labSubmission);
+        summaryService.refresh(updatedLabSubmission);
         return ResponseEntity.ok(updatedLabSubmission);
     }
     
     @DeleteMapping("/lab-submissions/{id}")
+    @Transactional
     public ResponseEntity<?> deleteLabSubmission(@PathVariable Long id) {
-        labSubmissionRepository.deleteById(id);
+        labSubmissionRepository.findById(id).ifPresent(labSubmission -> {
+            labSubmissionRepository.delete(labSubmission);
+            summaryService.refresh(labSubmission);
+        });
         return ResponseEntity.ok().build();
     }
     
     // Attendance Management
     @GetMapping("/attendance")
-    public ResponseEntity<List<Attendance>> getAllAttendance() {
-        return ResponseEntity.ok(attendanceRepository.findAll());
+    public ResponseEntity<CursorPage<AttendanceView>> getAllAttendance(@RequestParam(required = false) Long after,
+                                                                       @RequestParam(required = false) Integer limit,
+                                                                       @RequestParam(required = false) Long studentId,
+                                                                       @RequestParam(required = false) Long subjectId,
+                                                                       @RequestParam(required = false) String group,
+                                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int size = pageSize(limit);
+        return ResponseEntity.ok(CursorPage.of(
+                attendanceRepository.findPage(cursor(after), studentId, subjectId, group, from, to, Limit.of(size + 1)),
+                size, AttendanceView::id));
     }
     
     @PutMapping("/attendance/{id}")
+    @Transactional
     public ResponseEntity<Attendance> updateAttendance(@PathVariable Long id, @RequestBody Attendance attendance) {
+        attendanceRepository.findById(id).ifPresent(summaryService::refresh);
         attendance.setId(id);
         Attendance updatedAttendance = attendanceRepository.save(attendance);
+        summaryService.refresh(updatedAttendance);
         return ResponseEntity.ok(updatedAttendance);
     }
     
     @DeleteMapping("/attendance/{id}")
+    @Transactional
     public ResponseEntity<?> deleteAttendance(@PathVariable Long id) {
-        attendanceRepository.deleteById(id);
+        attendanceRepository.findById(id).ifPresent(attendance -> {
+            attendanceRepository.delete(attendance);
+            summaryService.refresh(attendance);
+        });
         return ResponseEntity.ok().build();
     }
     
     // Attestations Management
     @GetMapping("/attestations")
-    public ResponseEntity<List<Attestation>> getAllAttestations() {
-        return ResponseEntity.ok(attestationRepository.findAll());
+    public ResponseEntity<CursorPage<AttestationView>> getAllAttestations(@RequestParam(required = false) Long after,
+                                                                          @RequestParam(required = false) Integer limit,
+                                                                          @RequestParam(required = false) Long studentId,
+                                                                          @RequestParam(required = false) Long subjectId,
+                                                                          @RequestParam(required = false) String group,
+                                                                          @RequestParam(required = false) Attestation.AttestationType type,
+                                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int size = pageSize(limit);
+        return ResponseEntity.ok(CursorPage.of(
+                attestationRepository.findPage(cursor(after), studentId, subjectId, group, type,
+                        startOfDay(from), startOfNextDay(to), Limit.of(size + 1)),
+                size, AttestationView::id));
     }
     
     @PutMapping("/attestations/{id}")
+    @Transactional
     public ResponseEntity<Attestation> updateAttestation(@PathVariable Long id, @RequestBody Attestation attestation) {
+        attestationRepository.findById(id).ifPresent(summaryService::refresh);
         attestation.setId(id);
         Attestation updatedAttestation = attestationRepository.save(attestation);
+        summaryService.refresh(updatedAttestation);
         return ResponseEntity.ok(updatedAttestation);
     }
     
     @DeleteMapping("/attestations/{id}")
+    @Transactional
     public ResponseEntity<?> deleteAttestation(@PathVariable Long id) {
-        attestationRepository.deleteById(id);
+        attestationRepository.findById(id).ifPresent(attestation -> {
+            attestationRepository.delete(attestation);
+            summaryService.refresh(attestation);
+        });
         return ResponseEntity.ok().build();
     }
+    
+    // Exports: rows are written to the response as they are read, format=csv|ndjson
+    @GetMapping("/export/grades")
+    public void exportGrades(@RequestParam(defaultValue = "csv") String format,
+                             @RequestParam(required = false) Long subjectId,
+                             @RequestParam(required = false) String group,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        if (exportFormat == null) {
+            rejectFormat(response, format);
+            return;
+        }
+        startExport(response, exportFormat, "grades");
+        exportService.exportGrades(subjectId, group, startOfDay(from), startOfNextDay(to),
+                exportFormat, response.getOutputStream());
+    }
+    
+    @GetMapping("/export/attendance")
+    public void exportAttendance(@RequestParam(defaultValue = "csv") String format,
+                                 @RequestParam(required = false) Long subjectId,
+                                 @RequestParam(required = false) String group,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                 HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        if (exportFormat == null) {
+            rejectFormat(response, format);
+            return;
+        }
+        startExport(response, exportFormat, "attendance");
+        exportService.exportAttendance(subjectId, group, from, to, exportFormat, response.getOutputStream());
+    }
+    
+    private static void startExport(HttpServletResponse response, ExportService.Format format, String name) {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+    }
+    
+    private static void rejectFormat(HttpServletResponse response, String format) throws IOException {
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        response.setContentType("text/plain; charset=UTF-8");
+        response.getWriter().write("Неподдерживаемый формат: " + format
+                + ". Поддерживаются: " + ExportService.Format.supported());
+    }
+    
+    private static int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+    
+    // Ids are positive, so 0 means "from the first row"
+    private static long cursor(Long after) {
+        return after != null ? after : 0L;
+    }
+    
+    private static LocalDateTime startOfDay(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+    
+    // Date ranges are inclusive, so the upper bound is the start of the following day
+    private static LocalDateTime startOfNextDay(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
+    }
+    
+    // Clamps lab points above the template maximum, left by writes made before points were validated
+    @PostMapping("/lab-submissions/repair")
+    @Transactional
+    public ResponseEntity<Map<String, Object>> repairLabSubmissions() {
+        List<StudentSubjectPair> fixed = labSubmissionRepository.clampPointsToMaxPoints();
+        fixed.forEach(row -> summaryService.refresh(row.getStudentId(), row.getSubjectId()));
+        return ResponseEntity.ok(Map.of("fixed", fixed.size()));
+    }
+    
+    // Student Summaries
+    @PostMapping("/summaries/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSummaries() {
+        int rows = summaryService.rebuildAll();
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
 }
 
 
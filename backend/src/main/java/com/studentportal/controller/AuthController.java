@@ -4,16 +4,31 @@ import com.studentportal.dto.AuthRequest;
 import com.studentportal.dto.AuthResponse;
 import com.studentportal.model.User;
 import com.studentportal.repository.UserRepository;
+import com.studentportal.security.AuthenticatedUser;
 import com.studentportal.security.JwtUtil;
+import com.studentportal.security.LoginExecutor;
+import com.studentportal.security.LoginRateLimiter;
+import com.studentportal.security.PortalUserDetails;
+import com.studentportal.security.StreamTickets;
+import com.studentportal.service.CustomUserDetailsService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -31,24 +46,60 @@ public class AuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    
+    @Autowired
+    private LoginExecutor loginExecutor;
+    
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+    
+    @Autowired
+    private StreamTickets streamTickets;
+    
+    @Value("${security.login-executor.retry-after-seconds:1}")
+    private int loginRetryAfterSeconds;
+    
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthRequest authRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody AuthRequest authRequest, HttpServletRequest request) {
+        // Limit attempts per account and per client address before any hashing is done
+        long retryAfter = loginRateLimiter.tryAcquire(authRequest.getEmail(), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(tooManyRequests(retryAfter));
+        }
+        
+        // BCrypt runs on the bounded login pool; the request thread is released meanwhile
+        try {
+            return loginExecutor.submit(() -> authenticate(authRequest));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests(loginRetryAfterSeconds));
+        }
+    }
+    
+    private ResponseEntity<?> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("Too many login attempts, try again later");
+    }
+    
+    private ResponseEntity<?> authenticate(AuthRequest authRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(authRequest.getEmail(), authRequest.getPassword())
             );
             
-            User user = userRepository.findByEmail(authRequest.getEmail())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            // Principal already carries the profile, no second lookup by email
+            PortalUserDetails user = (PortalUserDetails) authentication.getPrincipal();
             
-            String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+            String token = jwtUtil.generateToken(user.getUsername(), user.getRole(), user.getId());
             
             AuthResponse response = new AuthResponse(
                     token,
-                    user.getEmail(),
+                    user.getUsername(),
                     user.getFirstName(),
                     user.getLastName(),
-                    user.getRole().name(),
+                    user.getRole(),
                     user.getId()
             );
             
@@ -58,6 +109,23 @@ public class AuthController {
         }
     }
     
+    // Single-use ticket for opening an event stream, so the token never appears in a URL
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<?> streamTicket(@AuthenticationPrincipal AuthenticatedUser caller) {
+        if (caller == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Tokens issued before the uid claim existed only carry the email
+        Long userId = caller.getId() != null ? caller.getId()
+                : userRepository.findByEmail(caller.getEmail()).map(User::getId).orElse(null);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        AuthenticatedUser user = new AuthenticatedUser(userId, caller.getEmail(), caller.getRole(),
+                caller.getIssuedAt(), caller.getExpiresAt());
+        return ResponseEntity.ok(Map.of("ticket", streamTickets.issue(user)));
+    }
+    
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
@@ -66,6 +134,7 @@ public class AuthController {
         
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         User savedUser = userRepository.save(user);
+        userDetailsService.evict(savedUser.getEmail());
         
         return ResponseEntity.ok(savedUser);
     }
@@ -0,0 +1,29 @@
+package com.studentportal.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for read endpoints tagged by {@code ResourceVersionService}:
+ * a matching If-None-Match is answered with 304 before the body is loaded.
+ */
+final class ConditionalGet {
+    
+    // Browsers keep the body and revalidate with If-None-Match on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
+    private ConditionalGet() {
+    }
+    
+    static <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<T> body) {
+        // checkNotModified has already put the ETag on the response
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body.get());
+    }
+}
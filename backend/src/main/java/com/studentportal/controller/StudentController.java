@@ -1,11 +1,23 @@
 package com.studentportal.controller;
 
+import com.studentportal.dto.*;
 import com.studentportal.model.*;
 import com.studentportal.repository.*;
+import com.studentportal.security.AuthenticatedUser;
+import com.studentportal.service.ChangeNotificationService;
+import com.studentportal.service.ReferenceDataService;
+import com.studentportal.service.ResourceVersionService;
+import com.studentportal.service.StudentSummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
@@ -22,9 +34,6 @@ public class StudentController {
     @Autowired
     private LabSubmissionRepository labSubmissionRepository;
     
-    @Autowired
-    private LabTemplateRepository labTemplateRepository;
-    
     @Autowired
     private AttendanceRepository attendanceRepository;
     
@@ -35,103 +44,114 @@ public class StudentController {
     private UserRepository userRepository;
     
     @Autowired
-    private SubjectRepository subjectRepository;
+    private StudentSubjectSummaryRepository summaryRepository;
+    
+    @Autowired
+    private StudentSummaryService summaryService;
+    
+    @Autowired
+    private ResourceVersionService versions;
+    
+    @Autowired
+    private ChangeNotificationService notifications;
+    
+    @Autowired
+    private ReferenceDataService referenceData;
     
     @GetMapping("/{studentId}/grades")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
-    public ResponseEntity<List<Grade>> getGrades(@PathVariable Long studentId) {
-        List<Grade> grades = gradeRepository.findByStudentId(studentId);
-        return ResponseEntity.ok(grades);
+    public ResponseEntity<List<GradeView>> getGrades(@PathVariable Long studentId, WebRequest request) {
+        return ConditionalGet.respond(request, versions.studentTag(studentId),
+                () -> gradeRepository.findViewsByStudentId(studentId));
     }
     
     @GetMapping("/{studentId}/labs")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
-    public ResponseEntity<List<LabSubmission>> getLabs(@PathVariable Long studentId) {
-        List<LabSubmission> labs = labSubmissionRepository.findByStudentId(studentId);
-        return ResponseEntity.ok(labs);
+    public ResponseEntity<List<LabSubmissionView>> getLabs(@PathVariable Long studentId, WebRequest request) {
+        return ConditionalGet.respond(request, versions.studentTag(studentId),
+                () -> labSubmissionRepository.findViewsByStudentId(studentId));
     }
     
     @GetMapping("/{studentId}/lab-templates")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
-    public ResponseEntity<List<LabTemplate>> getLabTemplates(@PathVariable Long studentId) {
-        return ResponseEntity.ok(labTemplateRepository.findAll());
+    public ResponseEntity<List<LabTemplateView>> getLabTemplates(@PathVariable Long studentId, WebRequest request) {
+        return ConditionalGet.respond(request, versions.structureTag(), referenceData::getLabTemplates);
     }
     
     @GetMapping("/{studentId}/lab-templates/subject/{subjectId}")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
-    public ResponseEntity<List<LabTemplate>> getLabTemplatesBySubject(@PathVariable Long studentId, @PathVariable Long subjectId) {
-        return ResponseEntity.ok(labTemplateRepository.findBySubject_IdOrderByOrderNumberAsc(subjectId));
+    public ResponseEntity<List<LabTemplateView>> getLabTemplatesBySubject(@PathVariable Long studentId, @PathVariable Long subjectId,
+                                                                          WebRequest request) {
+        return ConditionalGet.respond(request, versions.structureTag(),
+                () -> referenceData.getLabTemplatesBySubject(subjectId));
     }
     
     @GetMapping("/{studentId}/attendance")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
-    public ResponseEntity<List<Attendance>> getAttendance(@PathVariable Long studentId) {
-        List<Attendance> attendance = attendanceRepository.findByStudentId(studentId);
-        return ResponseEntity.ok(attendance);
+    public ResponseEntity<List<AttendanceView>> getAttendance(@PathVariable Long studentId, WebRequest request) {
+        return ConditionalGet.respond(request, versions.studentTag(studentId),
+                () -> attendanceRepository.findViewsByStudentId(studentId));
     }
     
     @GetMapping("/{studentId}/attestations")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
-    public ResponseEntity<List<Attestation>> getAttestations(@PathVariable Long studentId) {
-        List<Attestation> attestations = attestationRepository.findByStudentId(studentId);
-        return ResponseEntity.ok(attestations);
+    public ResponseEntity<List<AttestationView>> getAttestations(@PathVariable Long studentId, WebRequest request) {
+        return ConditionalGet.respond(request, versions.studentTag(studentId),
+                () -> attestationRepository.findViewsByStudentId(studentId));
     }
     
     @GetMapping("/teachers")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
-    public ResponseEntity<List<User>> getTeachers() {
-        List<User> teachers = userRepository.findByRole(User.Role.TEACHER);
-        return ResponseEntity.ok(teachers);
+    public ResponseEntity<List<UserView>> getTeachers(WebRequest request) {
+        return ConditionalGet.respond(request, versions.structureTag(), referenceData::getTeachers);
     }
     
     @GetMapping("/{studentId}/dashboard")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
-    public ResponseEntity<Map<String, Object>> getDashboard(@PathVariable Long studentId) {
+    public ResponseEntity<Map<String, Object>> getDashboard(@PathVariable Long studentId, WebRequest request) {
+        return ConditionalGet.respond(request, versions.studentTag(studentId), () -> dashboard(studentId));
+    }
+    
+    private Map<String, Object> dashboard(Long studentId) {
         Map<String, Object> dashboard = new HashMap<>();
         
-        List<Grade> grades = gradeRepository.findByStudentId(studentId);
-        List<LabSubmission> labs = labSubmissionRepository.findByStudentId(studentId);
-        List<Attendance> attendance = attendanceRepository.findByStudentId(studentId);
-        List<Attestation> attestations = attestationRepository.findByStudentId(studentId);
-        
-        // Calculate stats
-        double averageGrade = grades.stream()
-                .mapToInt(Grade::getValue)
-                .average()
-                .orElse(0.0);
-        
-        int completedLabs = labs.size();
-        int totalLabTemplates = labTemplateRepository.findAll().size();
-        int earnedPoints = labs.stream()
-                .mapToInt(LabSubmission::getPoints)
-                .sum();
-        int maxPossiblePoints = labTemplateRepository.findAll().stream()
-                .mapToInt(LabTemplate::getMaxPoints)
-                .sum();
+        // Single indexed read of the maintained summaries; computed on demand
+        // while they are not backfilled or the student has no summary rows yet
+        StudentDashboardStats stats = summaryService.isBackfilled()
+                ? summaryRepository.getDashboardStats(studentId) : null;
+        if (stats == null) {
+            stats = userRepository.getDashboardStats(studentId);
+        }
         
-        long totalClasses = attendance.size();
-        long attendedClasses = attendance.stream()
-                .filter(Attendance::getPresent)
-                .count();
+        dashboard.put("averageGrade", stats.getAverageGrade());
+        dashboard.put("completedLabs", stats.getCompletedLabs());
+        dashboard.put("totalLabs", stats.getTotalLabs());
+        dashboard.put("earnedPoints", stats.getEarnedPoints());
+        dashboard.put("maxPossiblePoints", stats.getMaxPossiblePoints());
+        dashboard.put("attendanceRate", stats.getAttendanceRate());
+        dashboard.put("attestations", attestationRepository.findViewsByStudentId(studentId));
+        dashboard.put("recentGrades", gradeRepository.findRecentViewsByStudentId(studentId, Limit.of(5)));
         
-        double attendanceRate = totalClasses > 0 ? (attendedClasses * 100.0 / totalClasses) : 0.0;
-        
-        dashboard.put("averageGrade", averageGrade);
-        dashboard.put("completedLabs", completedLabs);
-        dashboard.put("totalLabs", totalLabTemplates);
-        dashboard.put("earnedPoints", earnedPoints);
-        dashboard.put("maxPossiblePoints", maxPossiblePoints);
-        dashboard.put("attendanceRate", attendanceRate);
-        dashboard.put("attestations", attestations);
-        dashboard.put("recentGrades", grades.stream().limit(5).toList());
-        
-        return ResponseEntity.ok(dashboard);
+        return dashboard;
+    }
+    
+    // Change notifications for the calling student (EventSource, opened with a stream ticket)
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<SseEmitter> streamChanges(@AuthenticationPrincipal AuthenticatedUser caller) {
+        // Tokens issued before the uid claim existed only carry the email
+        Long studentId = caller.getId() != null ? caller.getId()
+                : userRepository.findByEmail(caller.getEmail()).map(User::getId).orElse(null);
+        if (studentId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(notifications.subscribeStudent(studentId));
     }
     
     @GetMapping("/subjects")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
-    public ResponseEntity<List<Subject>> getAllSubjects() {
-        return ResponseEntity.ok(subjectRepository.findAll());
+    public ResponseEntity<List<Subject>> getAllSubjects(WebRequest request) {
+        return ConditionalGet.respond(request, versions.structureTag(), referenceData::getSubjects);
     }
 }
 
@@ -1,14 +1,36 @@
 package com.studentportal.controller;
 
+import com.studentportal.dto.*;
 import com.studentportal.model.*;
 import com.studentportal.repository.*;
+import com.studentportal.security.AuthenticatedUser;
+import com.studentportal.service.ChangeNotificationService;
+import com.studentportal.service.ReferenceDataService;
+import com.studentportal.service.ResourceVersionService;
+import com.studentportal.service.StudentSummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/teacher")
@@ -16,6 +38,8 @@ import java.util.List;
 @PreAuthorize("hasAuthority('ROLE_TEACHER')")
 public class TeacherController {
     
+    private static final int LAB_GRADE_CHUNK_SIZE = 500;
+    
     @Autowired
     private GradeRepository gradeRepository;
     
@@ -40,24 +64,43 @@ public class TeacherController {
     @Autowired
     private TeacherSubjectRepository teacherSubjectRepository;
     
+    @Autowired
+    private StudentSummaryService summaryService;
+    
+    @Autowired
+    private ResourceVersionService versions;
+    
+    @Autowired
+    private ChangeNotificationService notifications;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ReferenceDataService referenceData;
+    
     @GetMapping("/students")
-    public ResponseEntity<List<User>> getAllStudents() {
-        List<User> students = userRepository.findByRole(User.Role.STUDENT);
-        return ResponseEntity.ok(students);
+    public ResponseEntity<List<UserView>> getAllStudents(WebRequest request) {
+        return ConditionalGet.respond(request, versions.structureTag(),
+                () -> userRepository.findViewsByRole(User.Role.STUDENT));
     }
     
     @PostMapping("/grades")
     @PreAuthorize("hasAuthority('ROLE_TEACHER')")
+    @Transactional
     public ResponseEntity<Grade> addGrade(@RequestBody Grade grade) {
         Grade savedGrade = gradeRepository.save(grade);
+        summaryService.refresh(savedGrade);
         return ResponseEntity.ok(savedGrade);
     }
     
     @PutMapping("/grades/{id}")
     @PreAuthorize("hasAuthority('ROLE_TEACHER')")
+    @Transactional
     public ResponseEntity<Grade> updateGrade(@PathVariable Long id, @RequestBody Grade grade) {
         Grade existing = gradeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Grade not found"));
+        summaryService.refresh(existing);
         
         // Update only the fields that can be changed
         if (grade.getValue() != null) {
@@ -79,23 +122,31 @@ public class TeacherController {
         }
         
         Grade updatedGrade = gradeRepository.save(existing);
+        summaryService.refresh(updatedGrade);
         return ResponseEntity.ok(updatedGrade);
     }
     
     @DeleteMapping("/grades/{id}")
+    @Transactional
     public ResponseEntity<?> deleteGrade(@PathVariable Long id) {
-        gradeRepository.deleteById(id);
+        gradeRepository.findById(id).ifPresent(grade -> {
+            gradeRepository.delete(grade);
+            summaryService.refresh(grade);
+        });
         return ResponseEntity.ok().build();
     }
     
     @GetMapping("/grades/subject/{subjectId}")
-    public ResponseEntity<List<Grade>> getGradesBySubject(@PathVariable Long subjectId) {
-        return ResponseEntity.ok(gradeRepository.findBySubject_Id(subjectId));
+    public ResponseEntity<List<GradeView>> getGradesBySubject(@PathVariable Long subjectId, WebRequest request) {
+        return ConditionalGet.respond(request, versions.subjectTag(subjectId),
+                () -> gradeRepository.findViewsBySubjectId(subjectId));
     }
     
     // Subject Subscription Management
     @PostMapping("/subjects/{subjectId}/subscribe")
-    public ResponseEntity<?> subscribeToSubject(@PathVariable Long subjectId, @RequestParam Long teacherId) {
+    public ResponseEntity<?> subscribeToSubject(@PathVariable Long subjectId, @RequestParam(required = false) Long teacherId,
+                                                @AuthenticationPrincipal AuthenticatedUser caller) {
+        teacherId = resolveTeacherId(teacherId, caller);
         User teacher = userRepository.findById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found"));
         Subject subject = subjectRepository.findById(subjectId)
@@ -104,39 +155,79 @@ public class TeacherController {
         if (teacherSubjectRepository.findByTeacherIdAndSubjectId(teacherId, subjectId).isEmpty()) {
             TeacherSubject teacherSubject = new TeacherSubject(teacher, subject);
             teacherSubjectRepository.save(teacherSubject);
+            referenceData.subscriptionsChanged(teacherId);
         }
         return ResponseEntity.ok().build();
     }
     
     @DeleteMapping("/subjects/{subjectId}/unsubscribe")
     @Transactional
-    public ResponseEntity<?> unsubscribeFromSubject(@PathVariable Long subjectId, @RequestParam Long teacherId) {
+    public ResponseEntity<?> unsubscribeFromSubject(@PathVariable Long subjectId, @RequestParam(required = false) Long teacherId,
+                                                    @AuthenticationPrincipal AuthenticatedUser caller) {
+        teacherId = resolveTeacherId(teacherId, caller);
         teacherSubjectRepository.deleteByTeacherIdAndSubjectId(teacherId, subjectId);
+        referenceData.subscriptionsChanged(teacherId);
         return ResponseEntity.ok().build();
     }
     
     @GetMapping("/subjects/my")
-    public ResponseEntity<?> getMySubjects(@RequestParam Long teacherId) {
-        List<Subject> subjects = teacherSubjectRepository.findSubjectsByTeacherId(teacherId);
-        return ResponseEntity.ok(subjects);
+    public ResponseEntity<List<Subject>> getMySubjects(@RequestParam(required = false) Long teacherId,
+                                                       @AuthenticationPrincipal AuthenticatedUser caller,
+                                                       WebRequest request) {
+        Long resolvedTeacherId = resolveTeacherId(teacherId, caller);
+        return ConditionalGet.respond(request, versions.structureTag(),
+                () -> referenceData.getSubjectsByTeacher(resolvedTeacherId));
+    }
+    
+    // Explicit teacherId is kept for compatibility; otherwise the caller's id from the token is used
+    private Long resolveTeacherId(Long teacherId, AuthenticatedUser caller) {
+        if (teacherId != null) {
+            return teacherId;
+        }
+        if (caller == null || caller.getId() == null) {
+            throw new RuntimeException("Teacher not specified");
+        }
+        return caller.getId();
+    }
+    
+    // Change notifications for a subject the caller teaches (EventSource, opened with a stream ticket)
+    @GetMapping(value = "/subjects/{subjectId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSubjectChanges(@PathVariable Long subjectId,
+                                                           @AuthenticationPrincipal AuthenticatedUser caller) {
+        // Tokens issued before the uid claim existed only carry the email
+        Long teacherId = caller.getId() != null ? caller.getId()
+                : userRepository.findByEmail(caller.getEmail()).map(User::getId).orElse(null);
+        if (teacherId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (teacherSubjectRepository.findByTeacherIdAndSubjectId(teacherId, subjectId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(notifications.subscribeSubject(subjectId));
     }
     
     // Lab Templates Management
     @PostMapping("/lab-templates")
+    @Transactional
     public ResponseEntity<LabTemplate> createLabTemplate(@RequestBody LabTemplate labTemplate) {
         LabTemplate savedLabTemplate = labTemplateRepository.save(labTemplate);
+        summaryService.refreshSubject(savedLabTemplate.getSubject().getId());
+        referenceData.labTemplatesChanged();
         return ResponseEntity.ok(savedLabTemplate);
     }
     
     @GetMapping("/lab-templates/subject/{subjectId}")
-    public ResponseEntity<List<LabTemplate>> getLabTemplatesBySubject(@PathVariable Long subjectId) {
-        return ResponseEntity.ok(labTemplateRepository.findBySubject_IdOrderByOrderNumberAsc(subjectId));
+    public ResponseEntity<List<LabTemplateView>> getLabTemplatesBySubject(@PathVariable Long subjectId, WebRequest request) {
+        return ConditionalGet.respond(request, versions.subjectTag(subjectId),
+                () -> referenceData.getLabTemplatesBySubject(subjectId));
     }
     
     @PutMapping("/lab-templates/{id}")
+    @Transactional
     public ResponseEntity<LabTemplate> updateLabTemplate(@PathVariable Long id, @RequestBody LabTemplate labTemplate) {
         LabTemplate existing = labTemplateRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Lab template not found"));
+        summaryService.refreshSubject(existing.getSubject().getId());
         
         // Update only the fields that can be changed
         if (labTemplate.getTitle() != null) {
@@ -159,25 +250,43 @@ public class TeacherController {
         }
         
         LabTemplate updatedLabTemplate = labTemplateRepository.save(existing);
+        summaryService.refreshSubject(updatedLabTemplate.getSubject().getId());
+        referenceData.labTemplatesChanged();
         return ResponseEntity.ok(updatedLabTemplate);
     }
     
     @DeleteMapping("/lab-templates/{id}")
+    @Transactional
     public ResponseEntity<?> deleteLabTemplate(@PathVariable Long id) {
-        labTemplateRepository.deleteById(id);
+        labTemplateRepository.findById(id).ifPresent(labTemplate -> {
+            labTemplateRepository.delete(labTemplate);
+            summaryService.refreshSubject(labTemplate.getSubject().getId());
+            referenceData.labTemplatesChanged();
+        });
         return ResponseEntity.ok().build();
     }
     
     // Lab Submissions Grading
     @GetMapping("/lab-submissions/subject/{subjectId}")
-    public ResponseEntity<List<LabSubmission>> getLabSubmissionsBySubject(@PathVariable Long subjectId) {
-        return ResponseEntity.ok(labSubmissionRepository.findAll().stream()
-                .filter(sub -> sub.getLabTemplate().getSubject().getId().equals(subjectId))
-                .toList());
+    public ResponseEntity<List<LabSubmissionView>> getLabSubmissionsBySubject(@PathVariable Long subjectId,
+                                                                              @RequestParam(required = false) LabSubmission.SubmissionStatus status,
+                                                                              @RequestParam(required = false) Long studentId,
+                                                                              WebRequest request) {
+        return ConditionalGet.respond(request, versions.subjectTag(subjectId),
+                () -> labSubmissionRepository.findBySubjectId(subjectId, status, studentId));
+    }
+    
+    @GetMapping("/gradebook/subject/{subjectId}")
+    public ResponseEntity<Gradebook> getGradebook(@PathVariable Long subjectId,
+                                                  @RequestParam(required = false) String group,
+                                                  WebRequest request) {
+        return ConditionalGet.respond(request, versions.subjectTag(subjectId),
+                () -> Gradebook.of(subjectId, labSubmissionRepository.findGradebook(subjectId, group)));
     }
     
     @PostMapping("/lab-submissions")
     @PreAuthorize("hasAuthority('ROLE_TEACHER')")
+    @Transactional
     public ResponseEntity<?> createLabSubmission(@RequestBody LabSubmission labSubmission) {
         // Load lab template from database to get maxPoints
         if (labSubmission.getLabTemplate() == null || labSubmission.getLabTemplate().getId() == null) {
@@ -204,10 +313,12 @@ public class TeacherController {
         labSubmission.setLabTemplate(labTemplate);
         
         LabSubmission savedLabSubmission = labSubmissionRepository.save(labSubmission);
+        summaryService.refresh(savedLabSubmission);
         return ResponseEntity.ok(savedLabSubmission);
     }
     
     @PutMapping("/lab-submissions/{id}")
+    @Transactional
     public ResponseEntity<?> gradeLabSubmission(@PathVariable Long id, @RequestBody LabSubmission labSubmission) {
         LabSubmission existing = labSubmissionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Lab submission not found"));
@@ -227,55 +338,281 @@ public class TeacherController {
         existing.setGradedAt(java.time.LocalDateTime.now());
         
         LabSubmission updatedLabSubmission = labSubmissionRepository.save(existing);
+        summaryService.refresh(updatedLabSubmission);
         return ResponseEntity.ok(updatedLabSubmission);
     }
     
+    // Grades a batch of labs. Templates, students and existing submissions are loaded once up
+    // front; invalid lines are rejected individually and the rest are saved in chunks, each in
+    // its own transaction. The request is not atomic: a chunk the database refuses is rolled
+    // back and its lines are reported as FAILED, while the other chunks stay committed. A client
+    // must not resend the whole request, only the FAILED lines (saving a line again just
+    // overwrites the same submission)
+    @PostMapping("/lab-submissions/bulk")
+    public ResponseEntity<?> gradeLabSubmissions(@RequestBody List<LabGradeEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return ResponseEntity.ok(Map.of("results", List.of(), "saved", 0, "rejected", 0, "failed", 0));
+        }
+        Set<Long> templateIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (LabGradeEntry entry : entries) {
+            if (entry != null && entry.labTemplateId() != null && entry.studentId() != null) {
+                templateIds.add(entry.labTemplateId());
+                studentIds.add(entry.studentId());
+            }
+        }
+        Map<Long, LabTemplate> templates = new HashMap<>();
+        Map<Long, User> students = new HashMap<>();
+        Map<List<Long>, LabSubmission> existing = new HashMap<>();
+        if (!templateIds.isEmpty()) {
+            labTemplateRepository.findAllWithSubjectById(templateIds)
+                    .forEach(labTemplate -> templates.put(labTemplate.getId(), labTemplate));
+            userRepository.findAllById(studentIds).forEach(student -> students.put(student.getId(), student));
+            // Ordered by id, so the latest submission of a student for a lab wins
+            labSubmissionRepository.findByLabTemplateIdsAndStudentIds(templateIds, studentIds)
+                    .forEach(submission -> existing.put(
+                            List.of(submission.getLabTemplate().getId(), submission.getStudent().getId()), submission));
+        }
+        
+        LabGradeResult[] results = new LabGradeResult[entries.size()];
+        List<LabSubmission> rows = new ArrayList<>();
+        List<Integer> rowIndexes = new ArrayList<>();
+        List<LabGradeResult.Outcome> outcomes = new ArrayList<>();
+        Set<List<Long>> seen = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < entries.size(); i++) {
+            LabGradeEntry entry = entries.get(i);
+            if (entry == null || entry.labTemplateId() == null || entry.studentId() == null) {
+                results[i] = LabGradeResult.rejected(i, "Студент и лабораторная работа обязательны");
+                continue;
+            }
+            LabTemplate labTemplate = templates.get(entry.labTemplateId());
+            User student = students.get(entry.studentId());
+            if (labTemplate == null) {
+                results[i] = LabGradeResult.rejected(i, "Лабораторная работа не найдена");
+                continue;
+            }
+            if (student == null || student.getRole() != User.Role.STUDENT) {
+                results[i] = LabGradeResult.rejected(i, "Студент не найден");
+                continue;
+            }
+            if (labTemplate.getMaxPoints() == null) {
+                results[i] = LabGradeResult.rejected(i, "Максимальные баллы не установлены для лабораторной работы");
+                continue;
+            }
+            if (entry.points() == null) {
+                results[i] = LabGradeResult.rejected(i, "Баллы не указаны");
+                continue;
+            }
+            if (entry.points() > labTemplate.getMaxPoints()) {
+                results[i] = LabGradeResult.rejected(i, "Баллы не могут превышать максимальные баллы лабораторной работы ("
+                        + labTemplate.getMaxPoints() + ")");
+                continue;
+            }
+            if (entry.points() < 0) {
+                results[i] = LabGradeResult.rejected(i, "Баллы не могут быть отрицательными");
+                continue;
+            }
+            List<Long> key = List.of(labTemplate.getId(), student.getId());
+            if (!seen.add(key)) {
+                results[i] = LabGradeResult.rejected(i, "Повторная запись для этого студента и лабораторной работы");
+                continue;
+            }
+            
+            LabSubmission submission = existing.get(key);
+            if (submission == null) {
+                submission = new LabSubmission();
+                submission.setLabTemplate(labTemplate);
+                submission.setStudent(student);
+                outcomes.add(LabGradeResult.Outcome.CREATED);
+            } else {
+                outcomes.add(LabGradeResult.Outcome.UPDATED);
+            }
+            submission.setPoints(entry.points());
+            submission.setComment(entry.comment());
+            submission.setStatus(entry.status() != null ? entry.status() : LabSubmission.SubmissionStatus.GRADED);
+            submission.setGradedAt(now);
+            rows.add(submission);
+            rowIndexes.add(i);
+        }
+        
+        int savedCount = 0;
+        int failedCount = 0;
+        for (int from = 0; from < rows.size(); from += LAB_GRADE_CHUNK_SIZE) {
+            int to = Math.min(from + LAB_GRADE_CHUNK_SIZE, rows.size());
+            List<LabSubmission> chunk = rows.subList(from, to);
+            try {
+                List<LabSubmission> saved = transactionTemplate.execute(status -> {
+                    List<LabSubmission> chunkSaved = labSubmissionRepository.bulkSave(chunk);
+                    chunkSaved.forEach(summaryService::refresh);
+                    return chunkSaved;
+                });
+                for (int j = 0; j < saved.size(); j++) {
+                    int index = rowIndexes.get(from + j);
+                    results[index] = new LabGradeResult(index, outcomes.get(from + j), saved.get(j).getId(), null);
+                }
+                savedCount += saved.size();
+            } catch (DataAccessException e) {
+                // E.g. the lab template or student was deleted meanwhile: the whole chunk is rolled back
+                String error = "Не удалось сохранить: " + e.getMostSpecificCause().getMessage();
+                for (int j = from; j < to; j++) {
+                    int index = rowIndexes.get(j);
+                    results[index] = LabGradeResult.failed(index, error);
+                }
+                failedCount += to - from;
+            }
+        }
+        
+        return ResponseEntity.ok(Map.of("results", results, "saved", savedCount, "failed", failedCount,
+                "rejected", entries.size() - savedCount - failedCount));
+    }
+    
     @DeleteMapping("/lab-submissions/{id}")
+    @Transactional
     public ResponseEntity<?> deleteLabSubmission(@PathVariable Long id) {
-        labSubmissionRepository.deleteById(id);
+        labSubmissionRepository.findById(id).ifPresent(labSubmission -> {
+            labSubmissionRepository.delete(labSubmission);
+            summaryService.refresh(labSubmission);
+        });
         return ResponseEntity.ok().build();
     }
     
     @GetMapping("/attendance/subject/{subjectId}")
-    public ResponseEntity<List<Attendance>> getAttendanceBySubject(@PathVariable Long subjectId) {
-        return ResponseEntity.ok(attendanceRepository.findBySubject_Id(subjectId));
+    public ResponseEntity<List<AttendanceView>> getAttendanceBySubject(@PathVariable Long subjectId, WebRequest request) {
+        return ConditionalGet.respond(request, versions.subjectTag(subjectId),
+                () -> attendanceRepository.findViewsBySubjectId(subjectId));
     }
     
+    // Keyed on (student, subject, date) like the bulk marking: a second mark for the same
+    // day updates the first one instead of adding a row
     @PostMapping("/attendance")
-    public ResponseEntity<Attendance> addAttendance(@RequestBody Attendance attendance) {
-        Attendance savedAttendance = attendanceRepository.save(attendance);
-        return ResponseEntity.ok(savedAttendance);
+    @Transactional
+    public ResponseEntity<?> addAttendance(@RequestBody Attendance attendance) {
+        Long studentId = attendance.getStudent() != null ? attendance.getStudent().getId() : null;
+        Long subjectId = attendance.getSubject() != null ? attendance.getSubject().getId() : null;
+        if (studentId == null || subjectId == null || attendance.getDate() == null || attendance.getPresent() == null) {
+            return ResponseEntity.badRequest().body("Студент, предмет, дата и отметка присутствия обязательны");
+        }
+        attendanceRepository.upsertForClass(subjectId, attendance.getDate(),
+                Map.of(studentId, attendance.getPresent()), attendance.getNote());
+        summaryService.refresh(studentId, subjectId, ChangeEvent.Kind.ATTENDANCE);
+        return ResponseEntity.ok(attendanceRepository.findForClass(subjectId, attendance.getDate(), List.of(studentId))
+                .get(0));
+    }
+    
+    // Whole class in one request: rows keyed on (student, subject, date) are inserted or
+    // updated with INSERT ... ON CONFLICT, so concurrent submissions of the same class do
+    // not collide. Every id must be a student, of the given group if there is one
+    @PostMapping("/attendance/bulk")
+    @Transactional
+    public ResponseEntity<?> markAttendance(@RequestBody BulkAttendanceRequest request) {
+        if (request.subjectId() == null || request.date() == null) {
+            return ResponseEntity.badRequest().body("Предмет и дата обязательны");
+        }
+        String group = request.group() != null && !request.group().isBlank() ? request.group() : null;
+        Map<Long, Boolean> presence = new LinkedHashMap<>();
+        if (request.absent() != null) {
+            request.absent().forEach(studentId -> presence.put(studentId, false));
+        }
+        if (request.present() != null) {
+            for (Long studentId : request.present()) {
+                if (presence.put(studentId, true) != null) {
+                    return ResponseEntity.badRequest().body("Студент " + studentId + " отмечен и присутствующим, и отсутствующим");
+                }
+            }
+        }
+        if (presence.isEmpty()) {
+            return ResponseEntity.ok(Map.of("created", 0, "updated", 0));
+        }
+        
+        Subject subject = subjectRepository.findById(request.subjectId())
+                .orElseThrow(() -> new RuntimeException("Subject not found"));
+        Map<Long, User> students = new HashMap<>();
+        userRepository.findAllById(presence.keySet()).forEach(student -> students.put(student.getId(), student));
+        List<Long> unknown = presence.keySet().stream().filter(id -> !students.containsKey(id)).toList();
+        if (!unknown.isEmpty()) {
+            return ResponseEntity.badRequest().body("Студенты не найдены: " + joinIds(unknown));
+        }
+        List<Long> notStudents = students.values().stream()
+                .filter(user -> user.getRole() != User.Role.STUDENT
+                        || group != null && !group.equals(user.getStudentGroup()))
+                .map(User::getId)
+                .sorted()
+                .toList();
+        if (!notStudents.isEmpty()) {
+            return ResponseEntity.badRequest().body((group != null ? "Не студенты группы " + group : "Не студенты")
+                    + ": " + joinIds(notStudents));
+        }
+        
+        int created = attendanceRepository.upsertForClass(subject.getId(), request.date(), presence, request.note());
+        presence.keySet().forEach(studentId ->
+                summaryService.refresh(studentId, subject.getId(), ChangeEvent.Kind.ATTENDANCE));
+        
+        return ResponseEntity.ok(Map.of("created", created, "updated", presence.size() - created));
+    }
+    
+    private static String joinIds(Collection<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(", "));
     }
     
     @PutMapping("/attendance/{id}")
+    @Transactional
     public ResponseEntity<Attendance> updateAttendance(@PathVariable Long id, @RequestBody Attendance attendance) {
+        attendanceRepository.findById(id).ifPresent(summaryService::refresh);
         attendance.setId(id);
         Attendance updatedAttendance = attendanceRepository.save(attendance);
+        summaryService.refresh(updatedAttendance);
         return ResponseEntity.ok(updatedAttendance);
     }
     
     @DeleteMapping("/attendance/{id}")
+    @Transactional
     public ResponseEntity<?> deleteAttendance(@PathVariable Long id) {
-        attendanceRepository.deleteById(id);
+        attendanceRepository.findById(id).ifPresent(attendance -> {
+            attendanceRepository.delete(attendance);
+            summaryService.refresh(attendance);
+        });
         return ResponseEntity.ok().build();
     }
     
+    // All attestations the teacher needs in one query: for the given subjects,
+    // or for every subject the teacher teaches; optionally narrowed to one group
+    @GetMapping("/attestations")
+    public ResponseEntity<List<AttestationView>> getAttestations(@RequestParam(required = false) List<Long> subjectIds,
+                                                                 @RequestParam(required = false) String group,
+                                                                 @RequestParam(required = false) Long teacherId,
+                                                                 @AuthenticationPrincipal AuthenticatedUser caller,
+                                                                 WebRequest request) {
+        if (subjectIds != null && !subjectIds.isEmpty()) {
+            return ConditionalGet.respond(request, versions.anyTag(),
+                    () -> attestationRepository.findBySubjectIds(subjectIds, group));
+        }
+        Long resolvedTeacherId = resolveTeacherId(teacherId, caller);
+        return ConditionalGet.respond(request, versions.anyTag(),
+                () -> attestationRepository.findByTeacherId(resolvedTeacherId, group));
+    }
+    
     @GetMapping("/attestations/subject/{subjectId}")
-    public ResponseEntity<List<Attestation>> getAttestationsBySubject(@PathVariable Long subjectId) {
-        return ResponseEntity.ok(attestationRepository.findBySubject_Id(subjectId));
+    public ResponseEntity<List<AttestationView>> getAttestationsBySubject(@PathVariable Long subjectId, WebRequest request) {
+        return ConditionalGet.respond(request, versions.subjectTag(subjectId),
+                () -> attestationRepository.findViewsBySubjectId(subjectId));
     }
     
     @PostMapping("/attestations")
+    @Transactional
     public ResponseEntity<Attestation> addAttestation(@RequestBody Attestation attestation) {
         Attestation savedAttestation = attestationRepository.save(attestation);
+        summaryService.refresh(savedAttestation);
         return ResponseEntity.ok(savedAttestation);
     }
     
     @PutMapping("/attestations/{id}")
     @PreAuthorize("hasAuthority('ROLE_TEACHER')")
+    @Transactional
     public ResponseEntity<Attestation> updateAttestation(@PathVariable Long id, @RequestBody Attestation attestation) {
         Attestation existing = attestationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Attestation not found"));
+        summaryService.refresh(existing);
         
         // Update only the fields that can be changed
         if (attestation.getType() != null) {
@@ -300,18 +637,23 @@ public class TeacherController {
         }
         
         Attestation updatedAttestation = attestationRepository.save(existing);
+        summaryService.refresh(updatedAttestation);
         return ResponseEntity.ok(updatedAttestation);
     }
     
     @DeleteMapping("/attestations/{id}")
+    @Transactional
     public ResponseEntity<?> deleteAttestation(@PathVariable Long id) {
-        attestationRepository.deleteById(id);
+        attestationRepository.findById(id).ifPresent(attestation -> {
+            attestationRepository.delete(attestation);
+            summaryService.refresh(attestation);
+        });
         return ResponseEntity.ok().build();
     }
     
     @GetMapping("/subjects")
-    public ResponseEntity<List<Subject>> getAllSubjects() {
-        return ResponseEntity.ok(subjectRepository.findAll());
+    public ResponseEntity<List<Subject>> getAllSubjects(WebRequest request) {
+        return ConditionalGet.respond(request, versions.structureTag(), referenceData::getSubjects);
     }
 }
 
@@ -0,0 +1,16 @@
+package com.studentportal.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only attendance row, built from a JPQL constructor expression.
+ */
+public record AttendanceView(Long id, StudentRef student, SubjectRef subject, LocalDate date, Boolean present,
+                             String note) {
+    
+    public AttendanceView(Long id, Long studentId, String studentFirstName, String studentLastName, String studentGroup,
+                          Long subjectId, String subjectName, LocalDate date, Boolean present, String note) {
+        this(id, new StudentRef(studentId, studentFirstName, studentLastName, studentGroup),
+                new SubjectRef(subjectId, subjectName), date, present, note);
+    }
+}
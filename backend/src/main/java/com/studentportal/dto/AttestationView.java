@@ -0,0 +1,19 @@
+package com.studentportal.dto;
+
+import com.studentportal.model.Attestation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only attestation row, built from a JPQL constructor expression.
+ */
+public record AttestationView(Long id, StudentRef student, SubjectRef subject, Attestation.AttestationType type,
+                              Boolean passed, String comment, LocalDateTime createdAt) {
+    
+    public AttestationView(Long id, Long studentId, String studentFirstName, String studentLastName, String studentGroup,
+                           Long subjectId, String subjectName, Attestation.AttestationType type, Boolean passed,
+                           String comment, LocalDateTime createdAt) {
+        this(id, new StudentRef(studentId, studentFirstName, studentLastName, studentGroup),
+                new SubjectRef(subjectId, subjectName), type, passed, comment, createdAt);
+    }
+}
@@ -0,0 +1,12 @@
+package com.studentportal.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One class of attendance: who was present and who was absent on a date. {@code group}
+ * is optional; when set, every id must be a student of that group.
+ */
+public record BulkAttendanceRequest(Long subjectId, String group, LocalDate date, List<Long> present,
+                                    List<Long> absent, String note) {
+}
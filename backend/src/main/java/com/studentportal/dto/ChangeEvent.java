@@ -0,0 +1,23 @@
+package com.studentportal.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Payload of a server-sent "change" event: what changed in which subject.
+ * Student streams get no {@code studentIds}; subject streams get the students
+ * touched, or none when the subject changed as a whole (lab templates).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEvent(Long subjectId, Collection<Long> studentIds, Set<Kind> kinds) {
+    
+    public enum Kind {
+        GRADE,
+        LAB,
+        ATTENDANCE,
+        ATTESTATION,
+        LAB_TEMPLATE
+    }
+}
@@ -0,0 +1,23 @@
+package com.studentportal.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One keyset page of a list endpoint. {@code nextCursor} is the id to pass as
+ * {@code after} for the following page, or null when this is the last page.
+ */
+public record CursorPage<T>(List<T> items, Long nextCursor) {
+    
+    /**
+     * Builds a page from a query that fetched up to {@code limit + 1} rows;
+     * the extra row only signals that another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, idOf.apply(items.get(limit - 1)));
+    }
+}
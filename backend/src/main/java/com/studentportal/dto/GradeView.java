@@ -0,0 +1,17 @@
+package com.studentportal.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only grade row. The flat constructor is the target of JPQL constructor
+ * expressions, which cannot build nested objects themselves.
+ */
+public record GradeView(Long id, StudentRef student, SubjectRef subject, Integer value, String description,
+                        LocalDateTime createdAt) {
+    
+    public GradeView(Long id, Long studentId, String studentFirstName, String studentLastName, String studentGroup,
+                     Long subjectId, String subjectName, Integer value, String description, LocalDateTime createdAt) {
+        this(id, new StudentRef(studentId, studentFirstName, studentLastName, studentGroup),
+                new SubjectRef(subjectId, subjectName), value, description, createdAt);
+    }
+}
@@ -0,0 +1,48 @@
+package com.studentportal.dto;
+
+import com.studentportal.model.LabSubmission;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lab gradebook of a subject as a dense matrix. {@code points} and {@code statuses}
+ * are row-major: the cell for student {@code i} and template {@code j} is at
+ * {@code i * labTemplateIds.size() + j}, null when nothing was submitted.
+ */
+public record Gradebook(Long subjectId, List<Long> labTemplateIds, List<Long> studentIds,
+                        Integer[] points, LabSubmission.SubmissionStatus[] statuses) {
+    
+    /**
+     * Builds the matrix from cells ordered by student, then by template,
+     * as returned by {@code LabSubmissionRepository.findGradebook}.
+     */
+    public static Gradebook of(Long subjectId, List<GradebookCell> cells) {
+        Map<Long, Integer> templateIndex = new LinkedHashMap<>();
+        Map<Long, Integer> studentIndex = new LinkedHashMap<>();
+        for (GradebookCell cell : cells) {
+            if (cell.getLabTemplateId() != null) {
+                templateIndex.putIfAbsent(cell.getLabTemplateId(), templateIndex.size());
+            }
+            if (cell.getStudentId() != null) {
+                studentIndex.putIfAbsent(cell.getStudentId(), studentIndex.size());
+            }
+        }
+        
+        int width = templateIndex.size();
+        Integer[] points = new Integer[studentIndex.size() * width];
+        LabSubmission.SubmissionStatus[] statuses = new LabSubmission.SubmissionStatus[points.length];
+        for (GradebookCell cell : cells) {
+            if (cell.getStatus() == null || cell.getStudentId() == null || cell.getLabTemplateId() == null) {
+                continue;
+            }
+            int index = studentIndex.get(cell.getStudentId()) * width + templateIndex.get(cell.getLabTemplateId());
+            points[index] = cell.getPoints();
+            statuses[index] = LabSubmission.SubmissionStatus.valueOf(cell.getStatus());
+        }
+        return new Gradebook(subjectId, new ArrayList<>(templateIndex.keySet()),
+                new ArrayList<>(studentIndex.keySet()), points, statuses);
+    }
+}
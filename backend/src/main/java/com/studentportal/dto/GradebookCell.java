@@ -0,0 +1,16 @@
+package com.studentportal.dto;
+
+/**
+ * One (student, lab template) cell of a gradebook query. Either id is null when
+ * the subject has no students or no lab templates; points and status are null
+ * when nothing was submitted.
+ */
+public interface GradebookCell {
+    Long getStudentId();
+    
+    Long getLabTemplateId();
+    
+    Integer getPoints();
+    
+    String getStatus();
+}
@@ -0,0 +1,11 @@
+package com.studentportal.dto;
+
+import com.studentportal.model.LabSubmission;
+
+/**
+ * One line of a batch grading request. The submission is found by
+ * (student, lab template); status defaults to GRADED.
+ */
+public record LabGradeEntry(Long studentId, Long labTemplateId, Integer points,
+                            LabSubmission.SubmissionStatus status, String comment) {
+}
@@ -0,0 +1,24 @@
+package com.studentportal.dto;
+
+/**
+ * Outcome of one {@link LabGradeEntry}, reported at the same index as the request line.
+ * REJECTED lines are invalid and would fail again; FAILED lines were valid but their
+ * chunk could not be saved, so only they need to be sent again.
+ */
+public record LabGradeResult(int index, Outcome outcome, Long submissionId, String error) {
+    
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        REJECTED,
+        FAILED
+    }
+    
+    public static LabGradeResult rejected(int index, String error) {
+        return new LabGradeResult(index, Outcome.REJECTED, null, error);
+    }
+    
+    public static LabGradeResult failed(int index, String error) {
+        return new LabGradeResult(index, Outcome.FAILED, null, error);
+    }
+}
@@ -0,0 +1,23 @@
+package com.studentportal.dto;
+
+import com.studentportal.model.LabSubmission;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only lab submission row, built from a JPQL constructor expression.
+ */
+public record LabSubmissionView(Long id, LabTemplateRef labTemplate, StudentRef student, Integer points, String comment,
+                                LabSubmission.SubmissionStatus status, LocalDateTime submittedAt,
+                                LocalDateTime gradedAt) {
+    
+    public LabSubmissionView(Long id, Long labTemplateId, String labTemplateTitle, Integer labTemplateMaxPoints,
+                             Long subjectId, String subjectName, Long studentId, String studentFirstName,
+                             String studentLastName, String studentGroup, Integer points, String comment,
+                             LabSubmission.SubmissionStatus status, LocalDateTime submittedAt, LocalDateTime gradedAt) {
+        this(id, new LabTemplateRef(labTemplateId, labTemplateTitle, labTemplateMaxPoints,
+                        new SubjectRef(subjectId, subjectName)),
+                new StudentRef(studentId, studentFirstName, studentLastName, studentGroup),
+                points, comment, status, submittedAt, gradedAt);
+    }
+}
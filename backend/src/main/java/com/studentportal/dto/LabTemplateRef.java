@@ -0,0 +1,7 @@
+package com.studentportal.dto;
+
+/**
+ * Lab template as embedded in submission rows.
+ */
+public record LabTemplateRef(Long id, String title, Integer maxPoints, SubjectRef subject) {
+}
@@ -0,0 +1,15 @@
+package com.studentportal.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only lab template row, built from a JPQL constructor expression.
+ */
+public record LabTemplateView(Long id, String title, String description, SubjectRef subject, Integer maxPoints,
+                              Integer orderNumber, LocalDateTime createdAt) {
+    
+    public LabTemplateView(Long id, String title, String description, Long subjectId, String subjectName,
+                           Integer maxPoints, Integer orderNumber, LocalDateTime createdAt) {
+        this(id, title, description, new SubjectRef(subjectId, subjectName), maxPoints, orderNumber, createdAt);
+    }
+}
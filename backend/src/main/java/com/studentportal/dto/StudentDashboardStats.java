@@ -0,0 +1,18 @@
+package com.studentportal.dto;
+
+/**
+ * Aggregated dashboard figures for one student, computed by a single SQL query.
+ */
+public interface StudentDashboardStats {
+    Double getAverageGrade();
+    
+    Long getCompletedLabs();
+    
+    Long getTotalLabs();
+    
+    Long getEarnedPoints();
+    
+    Long getMaxPossiblePoints();
+    
+    Double getAttendanceRate();
+}
@@ -0,0 +1,7 @@
+package com.studentportal.dto;
+
+/**
+ * Student as embedded in list rows; never carries credentials.
+ */
+public record StudentRef(Long id, String firstName, String lastName, String studentGroup) {
+}
@@ -0,0 +1,11 @@
+package com.studentportal.dto;
+
+/**
+ * A (student, subject) pair returned by native queries, e.g. the rows touched by
+ * a repair that must have their summaries recomputed.
+ */
+public interface StudentSubjectPair {
+    Long getStudentId();
+    
+    Long getSubjectId();
+}
@@ -0,0 +1,7 @@
+package com.studentportal.dto;
+
+/**
+ * Subject as embedded in list rows: only what the tables display.
+ */
+public record SubjectRef(Long id, String name) {
+}
@@ -0,0 +1,24 @@
+package com.studentportal.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of the NDJSON import report: a rejected row ({@code error}),
+ * running totals after each saved chunk ({@code progress}) or the final totals ({@code done}).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserImportEvent(String type, Long line, String email, String message,
+                              Long processed, Long created, Long failed) {
+    
+    public static UserImportEvent error(long line, String email, String message) {
+        return new UserImportEvent("error", line, email, message, null, null, null);
+    }
+    
+    public static UserImportEvent progress(long processed, long created, long failed) {
+        return new UserImportEvent("progress", null, null, null, processed, created, failed);
+    }
+    
+    public static UserImportEvent done(long processed, long created, long failed) {
+        return new UserImportEvent("done", null, null, null, processed, created, failed);
+    }
+}
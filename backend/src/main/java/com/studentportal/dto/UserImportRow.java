@@ -0,0 +1,9 @@
+package com.studentportal.dto;
+
+/**
+ * One user read from an import file. The password is plain text and is hashed
+ * before the row is saved.
+ */
+public record UserImportRow(String email, String password, String firstName, String lastName,
+                            String role, String studentGroup, String department) {
+}
@@ -0,0 +1,10 @@
+package com.studentportal.dto;
+
+import com.studentportal.model.User;
+
+/**
+ * Read-only user row for list endpoints, without the password hash.
+ */
+public record UserView(Long id, String email, String firstName, String lastName, User.Role role,
+                       String studentGroup, String department) {
+}
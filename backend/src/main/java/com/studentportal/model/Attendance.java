@@ -5,10 +5,16 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance", indexes = {
+        @Index(name = "idx_attendance_student_id", columnList = "student_id"),
+        @Index(name = "idx_attendance_subject_id", columnList = "subject_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_attendance_student_subject_date", columnNames = {"student_id", "subject_id", "date"})
+})
 public class Attendance {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendance_seq")
+    @SequenceGenerator(name = "attendance_seq", sequenceName = "attendance_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
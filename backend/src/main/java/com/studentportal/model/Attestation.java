@@ -5,10 +5,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attestations")
+@Table(name = "attestations", indexes = {
+        @Index(name = "idx_attestations_student_id", columnList = "student_id"),
+        @Index(name = "idx_attestations_subject_id", columnList = "subject_id")
+})
 public class Attestation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attestations_seq")
+    @SequenceGenerator(name = "attestations_seq", sequenceName = "attestations_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -5,10 +5,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lab_submissions")
+@Table(name = "lab_submissions", indexes = {
+        @Index(name = "idx_lab_submissions_template_student", columnList = "lab_template_id, student_id"),
+        @Index(name = "idx_lab_submissions_student_id", columnList = "student_id")
+})
 public class LabSubmission {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lab_submissions_seq")
+    @SequenceGenerator(name = "lab_submissions_seq", sequenceName = "lab_submissions_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
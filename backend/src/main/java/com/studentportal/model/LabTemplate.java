@@ -5,10 +5,13 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lab_templates")
+@Table(name = "lab_templates", indexes = {
+        @Index(name = "idx_lab_templates_subject_id", columnList = "subject_id")
+})
 public class LabTemplate {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lab_templates_seq")
+    @SequenceGenerator(name = "lab_templates_seq", sequenceName = "lab_templates_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
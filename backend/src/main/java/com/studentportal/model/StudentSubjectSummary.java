@@ -0,0 +1,184 @@
+package com.studentportal.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model with per-(student, subject) totals. Rows are maintained by
+ * {@link com.studentportal.service.StudentSummaryService} in the same transaction
+ * as the writes that change them.
+ */
+@Entity
+@Table(name = "student_subject_summaries",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "subject_id"}))
+public class StudentSubjectSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+    
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+    
+    @Column(nullable = false)
+    private Long gradeSum;
+    
+    @Column(nullable = false)
+    private Long gradeCount;
+    
+    @Column(nullable = false)
+    private Long labsCompleted;
+    
+    @Column(nullable = false)
+    private Long labsTotal;
+    
+    @Column(nullable = false)
+    private Long labPointsEarned;
+    
+    @Column(nullable = false)
+    private Long labPointsPossible;
+    
+    @Column(nullable = false)
+    private Long classesAttended;
+    
+    @Column(nullable = false)
+    private Long classesTotal;
+    
+    @Column
+    private Boolean firstAttestationPassed;
+    
+    @Column
+    private Boolean secondAttestationPassed;
+    
+    @Column
+    private Boolean finalAttestationPassed;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public StudentSubjectSummary() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public Long getGradeSum() {
+        return gradeSum;
+    }
+
+    public void setGradeSum(Long gradeSum) {
+        this.gradeSum = gradeSum;
+    }
+
+    public Long getGradeCount() {
+        return gradeCount;
+    }
+
+    public void setGradeCount(Long gradeCount) {
+        this.gradeCount = gradeCount;
+    }
+
+    public Long getLabsCompleted() {
+        return labsCompleted;
+    }
+
+    public void setLabsCompleted(Long labsCompleted) {
+        this.labsCompleted = labsCompleted;
+    }
+
+    public Long getLabsTotal() {
+        return labsTotal;
+    }
+
+    public void setLabsTotal(Long labsTotal) {
+        this.labsTotal = labsTotal;
+    }
+
+    public Long getLabPointsEarned() {
+        return labPointsEarned;
+    }
+
+    public void setLabPointsEarned(Long labPointsEarned) {
+        this.labPointsEarned = labPointsEarned;
+    }
+
+    public Long getLabPointsPossible() {
+        return labPointsPossible;
+    }
+
+    public void setLabPointsPossible(Long labPointsPossible) {
+        this.labPointsPossible = labPointsPossible;
+    }
+
+    public Long getClassesAttended() {
+        return classesAttended;
+    }
+
+    public void setClassesAttended(Long classesAttended) {
+        this.classesAttended = classesAttended;
+    }
+
+    public Long getClassesTotal() {
+        return classesTotal;
+    }
+
+    public void setClassesTotal(Long classesTotal) {
+        this.classesTotal = classesTotal;
+    }
+
+    public Boolean getFirstAttestationPassed() {
+        return firstAttestationPassed;
+    }
+
+    public void setFirstAttestationPassed(Boolean firstAttestationPassed) {
+        this.firstAttestationPassed = firstAttestationPassed;
+    }
+
+    public Boolean getSecondAttestationPassed() {
+        return secondAttestationPassed;
+    }
+
+    public void setSecondAttestationPassed(Boolean secondAttestationPassed) {
+        this.secondAttestationPassed = secondAttestationPassed;
+    }
+
+    public Boolean getFinalAttestationPassed() {
+        return finalAttestationPassed;
+    }
+
+    public void setFinalAttestationPassed(Boolean finalAttestationPassed) {
+        this.finalAttestationPassed = finalAttestationPassed;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -3,10 +3,15 @@ package com.studentportal.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "teacher_subjects")
+@Table(name = "teacher_subjects", indexes = {
+        @Index(name = "idx_teacher_subjects_subject_id", columnList = "subject_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_teacher_subjects_teacher_subject", columnNames = {"teacher_id", "subject_id"})
+})
 public class TeacherSubject {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teacher_subjects_seq")
+    @SequenceGenerator(name = "teacher_subjects_seq", sequenceName = "teacher_subjects_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
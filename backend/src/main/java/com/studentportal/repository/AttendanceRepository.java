@@ -1,17 +1,86 @@
 package com.studentportal.repository;
 
+import com.studentportal.dto.AttendanceView;
 import com.studentportal.model.Attendance;
 import com.studentportal.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, BulkSaveRepository<Attendance>,
+        AttendanceUpsertRepository {
     List<Attendance> findByStudent(User student);
     List<Attendance> findByStudentId(Long studentId);
     List<Attendance> findBySubject_Id(Long subjectId);
+    
+    @Query("SELECT a FROM Attendance a " +
+           "WHERE a.subject.id = :subjectId AND a.date = :date AND a.student.id IN :studentIds")
+    List<Attendance> findForClass(@Param("subjectId") Long subjectId,
+                                  @Param("date") LocalDate date,
+                                  @Param("studentIds") Collection<Long> studentIds);
+    
+    String VIEW_SELECT = "SELECT new com.studentportal.dto.AttendanceView(a.id, s.id, s.firstName, s.lastName, s.studentGroup, " +
+                         "sub.id, sub.name, a.date, a.present, a.note) " +
+                         "FROM Attendance a JOIN a.student s JOIN a.subject sub ";
+    
+    // Keyset page: rows after the given id, optional filters, at most limit rows
+    @Query(VIEW_SELECT +
+           "WHERE a.id > :afterId " +
+           "AND (:studentId IS NULL OR s.id = :studentId) " +
+           "AND (:subjectId IS NULL OR sub.id = :subjectId) " +
+           "AND (:group IS NULL OR s.studentGroup = :group) " +
+           "AND (CAST(:from AS LocalDate) IS NULL OR a.date >= :from) " +
+           "AND (CAST(:to AS LocalDate) IS NULL OR a.date <= :to) " +
+           "ORDER BY a.id")
+    List<AttendanceView> findPage(@Param("afterId") long afterId,
+                                  @Param("studentId") Long studentId,
+                                  @Param("subjectId") Long subjectId,
+                                  @Param("group") String group,
+                                  @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to,
+                                  Limit limit);
+    
+    // Forward-only cursor for exports, read from the server in batches of the fetch size
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(VIEW_SELECT +
+           "WHERE (:subjectId IS NULL OR sub.id = :subjectId) " +
+           "AND (:group IS NULL OR s.studentGroup = :group) " +
+           "AND (CAST(:from AS LocalDate) IS NULL OR a.date >= :from) " +
+           "AND (CAST(:to AS LocalDate) IS NULL OR a.date <= :to) " +
+           "ORDER BY a.id")
+    Stream<AttendanceView> streamForExport(@Param("subjectId") Long subjectId,
+                                   @Param("group") String group,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+    
+    @Query(VIEW_SELECT + "WHERE s.id = :studentId ORDER BY a.id")
+    List<AttendanceView> findViewsByStudentId(@Param("studentId") Long studentId);
+    
+    @Query(VIEW_SELECT + "WHERE sub.id = :subjectId ORDER BY a.id")
+    List<AttendanceView> findViewsBySubjectId(@Param("subjectId") Long subjectId);
+    
+    @Modifying
+    @Query("DELETE FROM Attendance a WHERE a.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query("DELETE FROM Attendance a WHERE a.subject.id = :subjectId")
+    int deleteBySubjectId(@Param("subjectId") Long subjectId);
 }
 
 
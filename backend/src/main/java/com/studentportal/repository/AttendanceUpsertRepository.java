@@ -0,0 +1,19 @@
+package com.studentportal.repository;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Repository fragment for marking attendance by its natural key.
+ */
+public interface AttendanceUpsertRepository {
+    
+    /**
+     * Marks the students present ({@code true}) or absent in the subject on the date:
+     * rows for (student, subject, date) are inserted, or updated if they already exist,
+     * with {@code INSERT ... ON CONFLICT} in chunks, so concurrent marks of the same
+     * class never collide on the unique key. A null note keeps the stored one.
+     * Returns the number of rows inserted; the rest were updated.
+     */
+    int upsertForClass(Long subjectId, LocalDate date, Map<Long, Boolean> presence, String note);
+}
@@ -0,0 +1,84 @@
+package com.studentportal.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class AttendanceUpsertRepositoryImpl implements AttendanceUpsertRepository {
+    
+    // attendance_seq hands out blocks of this many ids, like the generator on Attendance.id
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int CHUNK_SIZE = 1000;
+    
+    // xmax is 0 for a row this statement inserted
+    private static final String UPSERT_SQL = """
+            INSERT INTO attendance (id, student_id, subject_id, date, present, note)
+            SELECT t.id, t.student_id, CAST(? AS bigint), CAST(? AS date), t.present, CAST(? AS varchar)
+            FROM unnest(CAST(? AS bigint[]), CAST(? AS bigint[]), CAST(? AS boolean[])) AS t(id, student_id, present)
+            ON CONFLICT (student_id, subject_id, date) DO UPDATE
+            SET present = EXCLUDED.present, note = COALESCE(EXCLUDED.note, attendance.note)
+            RETURNING xmax = 0
+            """;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    @Transactional
+    public int upsertForClass(Long subjectId, LocalDate date, Map<Long, Boolean> presence, String note) {
+        // Rows are locked in student order, so two marks of one class never wait on each other crosswise
+        List<Map.Entry<Long, Boolean>> marks = new ArrayList<>(new TreeMap<>(presence).entrySet());
+        List<Long> ids = allocateIds(marks.size());
+        int inserted = 0;
+        for (int from = 0; from < marks.size(); from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, marks.size());
+            Object[] rowIds = ids.subList(from, to).toArray();
+            Object[] studentIds = marks.subList(from, to).stream().map(Map.Entry::getKey).toArray();
+            Object[] present = marks.subList(from, to).stream().map(Map.Entry::getValue).toArray();
+            inserted += jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(UPSERT_SQL);
+                statement.setLong(1, subjectId);
+                statement.setDate(2, Date.valueOf(date));
+                statement.setString(3, note);
+                statement.setArray(4, connection.createArrayOf("bigint", rowIds));
+                statement.setArray(5, connection.createArrayOf("bigint", studentIds));
+                statement.setArray(6, connection.createArrayOf("boolean", present));
+                return statement;
+            }, rs -> {
+                int count = 0;
+                while (rs.next()) {
+                    if (rs.getBoolean(1)) {
+                        count++;
+                    }
+                }
+                return count;
+            });
+        }
+        return inserted;
+    }
+    
+    // Whole blocks, as Hibernate's pooled optimizer takes them: nextval v owns v - 49 .. v.
+    // Ids of rows that turn out to be updates are skipped, as after a rollback
+    private List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+            List<Long> highs = jdbcTemplate.queryForList(
+                    "SELECT nextval('attendance_seq') FROM generate_series(1, ?)", Long.class, blocks);
+            for (long high : highs) {
+                for (long id = Math.max(high - ALLOCATION_SIZE + 1, 1); id <= high && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+}
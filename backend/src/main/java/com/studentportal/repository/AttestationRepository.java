@@ -1,17 +1,72 @@
 package com.studentportal.repository;
 
+import com.studentportal.dto.AttestationView;
 import com.studentportal.model.Attestation;
 import com.studentportal.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface AttestationRepository extends JpaRepository<Attestation, Long> {
+public interface AttestationRepository extends JpaRepository<Attestation, Long>, BulkSaveRepository<Attestation> {
     List<Attestation> findByStudent(User student);
     List<Attestation> findByStudentId(Long studentId);
     List<Attestation> findBySubject_Id(Long subjectId);
+    
+    String VIEW_SELECT = "SELECT new com.studentportal.dto.AttestationView(a.id, s.id, s.firstName, s.lastName, s.studentGroup, " +
+                         "sub.id, sub.name, a.type, a.passed, a.comment, a.createdAt) " +
+                         "FROM Attestation a JOIN a.student s JOIN a.subject sub ";
+    
+    // Keyset page: rows after the given id, optional filters, at most limit rows
+    @Query(VIEW_SELECT +
+           "WHERE a.id > :afterId " +
+           "AND (:studentId IS NULL OR s.id = :studentId) " +
+           "AND (:subjectId IS NULL OR sub.id = :subjectId) " +
+           "AND (:group IS NULL OR s.studentGroup = :group) " +
+           "AND (:type IS NULL OR a.type = :type) " +
+           "AND (CAST(:from AS LocalDateTime) IS NULL OR a.createdAt >= :from) " +
+           "AND (CAST(:to AS LocalDateTime) IS NULL OR a.createdAt < :to) " +
+           "ORDER BY a.id")
+    List<AttestationView> findPage(@Param("afterId") long afterId,
+                                   @Param("studentId") Long studentId,
+                                   @Param("subjectId") Long subjectId,
+                                   @Param("group") String group,
+                                   @Param("type") Attestation.AttestationType type,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   Limit limit);
+    
+    @Query(VIEW_SELECT + "WHERE s.id = :studentId ORDER BY a.id")
+    List<AttestationView> findViewsByStudentId(@Param("studentId") Long studentId);
+    
+    @Query(VIEW_SELECT + "WHERE sub.id = :subjectId ORDER BY a.id")
+    List<AttestationView> findViewsBySubjectId(@Param("subjectId") Long subjectId);
+    
+    @Query(VIEW_SELECT +
+           "WHERE sub.id IN :subjectIds AND (:group IS NULL OR s.studentGroup = :group) " +
+           "ORDER BY sub.id, s.lastName, s.firstName, a.type")
+    List<AttestationView> findBySubjectIds(@Param("subjectIds") Collection<Long> subjectIds, @Param("group") String group);
+    
+    @Query(VIEW_SELECT +
+           "WHERE sub.id IN (SELECT ts.subject.id FROM TeacherSubject ts WHERE ts.teacher.id = :teacherId) " +
+           "AND (:group IS NULL OR s.studentGroup = :group) " +
+           "ORDER BY sub.id, s.lastName, s.firstName, a.type")
+    List<AttestationView> findByTeacherId(@Param("teacherId") Long teacherId, @Param("group") String group);
+    
+    @Modifying
+    @Query("DELETE FROM Attestation a WHERE a.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query("DELETE FROM Attestation a WHERE a.subject.id = :subjectId")
+    int deleteBySubjectId(@Param("subjectId") Long subjectId);
 }
 
 
@@ -0,0 +1,18 @@
+package com.studentportal.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository fragment for writing many entities with JDBC batching.
+ */
+public interface BulkSaveRepository<T> {
+    
+    /**
+     * Inserts new entities and merges existing ones in groups of the configured
+     * JDBC batch size, so each group costs one round trip instead of one per row.
+     * Every group is flushed and then detached, keeping the persistence context
+     * small regardless of input size; the returned entities are detached.
+     */
+    List<T> bulkSave(Collection<T> entities);
+}
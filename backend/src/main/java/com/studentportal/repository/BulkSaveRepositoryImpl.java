@@ -0,0 +1,55 @@
+package com.studentportal.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class BulkSaveRepositoryImpl<T> implements BulkSaveRepository<T> {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+    
+    @Override
+    @Transactional
+    public List<T> bulkSave(Collection<T> entities) {
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<T> saved = new ArrayList<>(entities.size());
+        List<T> batch = new ArrayList<>(batchSize);
+        
+        for (T entity : entities) {
+            if (persistenceUnitUtil.getIdentifier(entity) == null) {
+                // Sequence ids are assigned in memory, so the INSERT itself can wait for the batch
+                entityManager.persist(entity);
+                batch.add(entity);
+            } else {
+                batch.add(entityManager.merge(entity));
+            }
+            if (batch.size() >= batchSize) {
+                flushAndDetach(batch, saved);
+            }
+        }
+        flushAndDetach(batch, saved);
+        return saved;
+    }
+    
+    private void flushAndDetach(List<T> batch, List<T> saved) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (T entity : batch) {
+            entityManager.detach(entity);
+        }
+        saved.addAll(batch);
+        batch.clear();
+    }
+}
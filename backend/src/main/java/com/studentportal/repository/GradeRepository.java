@@ -1,17 +1,81 @@
 package com.studentportal.repository;
 
+import com.studentportal.dto.GradeView;
 import com.studentportal.model.Grade;
 import com.studentportal.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface GradeRepository extends JpaRepository<Grade, Long> {
+public interface GradeRepository extends JpaRepository<Grade, Long>, BulkSaveRepository<Grade> {
     List<Grade> findByStudent(User student);
     List<Grade> findByStudentId(Long studentId);
     List<Grade> findBySubject_Id(Long subjectId);
+    
+    String VIEW_SELECT = "SELECT new com.studentportal.dto.GradeView(g.id, s.id, s.firstName, s.lastName, s.studentGroup, " +
+                         "sub.id, sub.name, g.value, g.description, g.createdAt) " +
+                         "FROM Grade g JOIN g.student s JOIN g.subject sub ";
+    
+    // Keyset page: rows after the given id, optional filters, at most limit rows
+    @Query(VIEW_SELECT +
+           "WHERE g.id > :afterId " +
+           "AND (:studentId IS NULL OR s.id = :studentId) " +
+           "AND (:subjectId IS NULL OR sub.id = :subjectId) " +
+           "AND (:group IS NULL OR s.studentGroup = :group) " +
+           "AND (CAST(:from AS LocalDateTime) IS NULL OR g.createdAt >= :from) " +
+           "AND (CAST(:to AS LocalDateTime) IS NULL OR g.createdAt < :to) " +
+           "ORDER BY g.id")
+    List<GradeView> findPage(@Param("afterId") long afterId,
+                             @Param("studentId") Long studentId,
+                             @Param("subjectId") Long subjectId,
+                             @Param("group") String group,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to,
+                             Limit limit);
+    
+    // Forward-only cursor for exports, read from the server in batches of the fetch size
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(VIEW_SELECT +
+           "WHERE (:subjectId IS NULL OR sub.id = :subjectId) " +
+           "AND (:group IS NULL OR s.studentGroup = :group) " +
+           "AND (CAST(:from AS LocalDateTime) IS NULL OR g.createdAt >= :from) " +
+           "AND (CAST(:to AS LocalDateTime) IS NULL OR g.createdAt < :to) " +
+           "ORDER BY g.id")
+    Stream<GradeView> streamForExport(@Param("subjectId") Long subjectId,
+                                   @Param("group") String group,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+    
+    @Query(VIEW_SELECT + "WHERE s.id = :studentId ORDER BY g.id")
+    List<GradeView> findViewsByStudentId(@Param("studentId") Long studentId);
+    
+    @Query(VIEW_SELECT + "WHERE sub.id = :subjectId ORDER BY g.id")
+    List<GradeView> findViewsBySubjectId(@Param("subjectId") Long subjectId);
+    
+    @Query(VIEW_SELECT + "WHERE s.id = :studentId ORDER BY g.createdAt DESC")
+    List<GradeView> findRecentViewsByStudentId(@Param("studentId") Long studentId, Limit limit);
+    
+    @Modifying
+    @Query("DELETE FROM Grade g WHERE g.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query("DELETE FROM Grade g WHERE g.subject.id = :subjectId")
+    int deleteBySubjectId(@Param("subjectId") Long subjectId);
 }
 
 
@@ -1,16 +1,106 @@
 package com.studentportal.repository;
 
+import com.studentportal.dto.GradebookCell;
+import com.studentportal.dto.LabSubmissionView;
+import com.studentportal.dto.StudentSubjectPair;
 import com.studentportal.model.LabSubmission;
 import com.studentportal.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface LabSubmissionRepository extends JpaRepository<LabSubmission, Long> {
+public interface LabSubmissionRepository extends JpaRepository<LabSubmission, Long>, BulkSaveRepository<LabSubmission> {
     List<LabSubmission> findByStudent(User student);
     List<LabSubmission> findByStudentId(Long studentId);
     List<LabSubmission> findByLabTemplate_Subject_IdAndStudentId(Long subjectId, Long studentId);
+    
+    @Query("SELECT ls FROM LabSubmission ls " +
+           "WHERE ls.labTemplate.id IN :labTemplateIds AND ls.student.id IN :studentIds ORDER BY ls.id")
+    List<LabSubmission> findByLabTemplateIdsAndStudentIds(@Param("labTemplateIds") Collection<Long> labTemplateIds,
+                                                          @Param("studentIds") Collection<Long> studentIds);
+    
+    // Every (student, template) pair of the subject with its latest submission, ordered by student name, then
+    // template order. Students are those with any activity in the subject, or the whole group when one is given.
+    // The FULL JOIN keeps templates when there are no students yet, and students when there are no templates
+    @Query(value = """
+            WITH t AS (
+                SELECT id, order_number FROM lab_templates WHERE subject_id = :subjectId
+            ), s AS (
+                SELECT id, last_name, first_name FROM users
+                WHERE role = 'STUDENT' AND CASE WHEN CAST(:group AS varchar) IS NULL
+                    THEN id IN (SELECT student_id FROM student_subject_summaries WHERE subject_id = :subjectId)
+                    ELSE student_group = :group END
+            )
+            SELECT s.id AS "studentId", t.id AS "labTemplateId", ls.points AS "points", ls.status AS "status"
+            FROM s FULL JOIN t ON true
+            LEFT JOIN LATERAL (SELECT points, status FROM lab_submissions
+                               WHERE lab_template_id = t.id AND student_id = s.id
+                               ORDER BY id DESC LIMIT 1) ls ON true
+            ORDER BY s.last_name, s.first_name, s.id, t.order_number, t.id
+            """, nativeQuery = true)
+    List<GradebookCell> findGradebook(@Param("subjectId") Long subjectId, @Param("group") String group);
+    
+    // One set-based UPDATE; returns the student and subject of every row it changed.
+    // Runs as a query because of RETURNING, so it needs the caller's read-write transaction
+    @Query(value = """
+            UPDATE lab_submissions ls SET points = lt.max_points
+            FROM lab_templates lt
+            WHERE lt.id = ls.lab_template_id AND ls.points > lt.max_points
+            RETURNING ls.student_id AS "studentId", lt.subject_id AS "subjectId"
+            """, nativeQuery = true)
+    List<StudentSubjectPair> clampPointsToMaxPoints();
+    
+    String VIEW_SELECT = "SELECT new com.studentportal.dto.LabSubmissionView(ls.id, lt.id, lt.title, lt.maxPoints, " +
+                         "sub.id, sub.name, s.id, s.firstName, s.lastName, s.studentGroup, " +
+                         "ls.points, ls.comment, ls.status, ls.submittedAt, ls.gradedAt) " +
+                         "FROM LabSubmission ls JOIN ls.labTemplate lt JOIN lt.subject sub JOIN ls.student s ";
+    
+    // Keyset page: rows after the given id, optional filters, at most limit rows
+    @Query(VIEW_SELECT +
+           "WHERE ls.id > :afterId " +
+           "AND (:studentId IS NULL OR s.id = :studentId) " +
+           "AND (:subjectId IS NULL OR sub.id = :subjectId) " +
+           "AND (:group IS NULL OR s.studentGroup = :group) " +
+           "AND (:status IS NULL OR ls.status = :status) " +
+           "AND (CAST(:from AS LocalDateTime) IS NULL OR ls.submittedAt >= :from) " +
+           "AND (CAST(:to AS LocalDateTime) IS NULL OR ls.submittedAt < :to) " +
+           "ORDER BY ls.id")
+    List<LabSubmissionView> findPage(@Param("afterId") long afterId,
+                                     @Param("studentId") Long studentId,
+                                     @Param("subjectId") Long subjectId,
+                                     @Param("group") String group,
+                                     @Param("status") LabSubmission.SubmissionStatus status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     Limit limit);
+    
+    @Query(VIEW_SELECT + "WHERE s.id = :studentId ORDER BY ls.id")
+    List<LabSubmissionView> findViewsByStudentId(@Param("studentId") Long studentId);
+    
+    @Query(VIEW_SELECT +
+           "WHERE sub.id = :subjectId " +
+           "AND (:status IS NULL OR ls.status = :status) " +
+           "AND (:studentId IS NULL OR s.id = :studentId) " +
+           "ORDER BY ls.id")
+    List<LabSubmissionView> findBySubjectId(@Param("subjectId") Long subjectId,
+                                            @Param("status") LabSubmission.SubmissionStatus status,
+                                            @Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query("DELETE FROM LabSubmission ls WHERE ls.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query("DELETE FROM LabSubmission ls " +
+           "WHERE ls.labTemplate.id IN (SELECT lt.id FROM LabTemplate lt WHERE lt.subject.id = :subjectId)")
+    int deleteBySubjectId(@Param("subjectId") Long subjectId);
 }
 
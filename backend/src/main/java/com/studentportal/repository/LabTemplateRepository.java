@@ -1,15 +1,37 @@
 package com.studentportal.repository;
 
+import com.studentportal.dto.LabTemplateView;
 import com.studentportal.model.LabTemplate;
 import com.studentportal.model.Subject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface LabTemplateRepository extends JpaRepository<LabTemplate, Long> {
+public interface LabTemplateRepository extends JpaRepository<LabTemplate, Long>, BulkSaveRepository<LabTemplate> {
     List<LabTemplate> findBySubjectOrderByOrderNumberAsc(Subject subject);
     List<LabTemplate> findBySubject_IdOrderByOrderNumberAsc(Long subjectId);
+    
+    @Query("SELECT lt FROM LabTemplate lt JOIN FETCH lt.subject WHERE lt.id IN :ids")
+    List<LabTemplate> findAllWithSubjectById(@Param("ids") Collection<Long> ids);
+    
+    String VIEW_SELECT = "SELECT new com.studentportal.dto.LabTemplateView(lt.id, lt.title, lt.description, " +
+                         "sub.id, sub.name, lt.maxPoints, lt.orderNumber, lt.createdAt) " +
+                         "FROM LabTemplate lt JOIN lt.subject sub ";
+    
+    @Query(VIEW_SELECT + "ORDER BY lt.id")
+    List<LabTemplateView> findAllViews();
+    
+    @Query(VIEW_SELECT + "WHERE sub.id = :subjectId ORDER BY lt.orderNumber")
+    List<LabTemplateView> findViewsBySubjectId(@Param("subjectId") Long subjectId);
+    
+    @Modifying
+    @Query("DELETE FROM LabTemplate lt WHERE lt.subject.id = :subjectId")
+    int deleteBySubjectId(@Param("subjectId") Long subjectId);
 }
 
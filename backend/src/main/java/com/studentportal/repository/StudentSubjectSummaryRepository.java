@@ -0,0 +1,162 @@
+package com.studentportal.repository;
+
+import com.studentportal.dto.StudentDashboardStats;
+import com.studentportal.model.StudentSubjectSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface StudentSubjectSummaryRepository extends JpaRepository<StudentSubjectSummary, Long> {
+    
+    // First key of the advisory locks taken by lockSubject
+    int SUMMARY_LOCK = 7301;
+    
+    // Recomputes summary rows for the (student_id, subject_id) pairs selected by the "pairs" CTE
+    String UPSERT_FROM_PAIRS = """
+            INSERT INTO student_subject_summaries (student_id, subject_id, grade_sum, grade_count,
+                    labs_completed, labs_total, lab_points_earned, lab_points_possible,
+                    classes_attended, classes_total, first_attestation_passed,
+                    second_attestation_passed, final_attestation_passed, updated_at)
+            SELECT p.student_id, p.subject_id, g.grade_sum, g.grade_count,
+                   l.labs_completed, t.labs_total, l.points_earned, t.points_possible,
+                   a.attended, a.total, att.first_passed, att.second_passed, att.final_passed, now()
+            FROM pairs p
+            CROSS JOIN LATERAL (SELECT COALESCE(SUM(value), 0) AS grade_sum, COUNT(*) AS grade_count
+                                FROM grades
+                                WHERE student_id = p.student_id AND subject_id = p.subject_id) g
+            CROSS JOIN LATERAL (SELECT COUNT(*) AS labs_completed, COALESCE(SUM(ls.points), 0) AS points_earned
+                                FROM lab_submissions ls
+                                JOIN lab_templates lt ON lt.id = ls.lab_template_id
+                                WHERE ls.student_id = p.student_id AND lt.subject_id = p.subject_id) l
+            CROSS JOIN LATERAL (SELECT COUNT(*) AS labs_total, COALESCE(SUM(max_points), 0) AS points_possible
+                                FROM lab_templates
+                                WHERE subject_id = p.subject_id) t
+            CROSS JOIN LATERAL (SELECT COUNT(*) FILTER (WHERE present) AS attended, COUNT(*) AS total
+                                FROM attendance
+                                WHERE student_id = p.student_id AND subject_id = p.subject_id) a
+            CROSS JOIN LATERAL (SELECT bool_or(passed) FILTER (WHERE type = 'FIRST') AS first_passed,
+                                       bool_or(passed) FILTER (WHERE type = 'SECOND') AS second_passed,
+                                       bool_or(passed) FILTER (WHERE type = 'FINAL') AS final_passed
+                                FROM attestations
+                                WHERE student_id = p.student_id AND subject_id = p.subject_id) att
+            ON CONFLICT (student_id, subject_id) DO UPDATE SET
+                grade_sum = EXCLUDED.grade_sum,
+                grade_count = EXCLUDED.grade_count,
+                labs_completed = EXCLUDED.labs_completed,
+                labs_total = EXCLUDED.labs_total,
+                lab_points_earned = EXCLUDED.lab_points_earned,
+                lab_points_possible = EXCLUDED.lab_points_possible,
+                classes_attended = EXCLUDED.classes_attended,
+                classes_total = EXCLUDED.classes_total,
+                first_attestation_passed = EXCLUDED.first_attestation_passed,
+                second_attestation_passed = EXCLUDED.second_attestation_passed,
+                final_attestation_passed = EXCLUDED.final_attestation_passed,
+                updated_at = EXCLUDED.updated_at
+            """;
+    
+    String EMPTY_ROW = """
+            grade_count = 0 AND labs_completed = 0 AND classes_total = 0
+            AND first_attestation_passed IS NULL AND second_attestation_passed IS NULL
+            AND final_attestation_passed IS NULL
+            """;
+    
+    /**
+     * Serializes summary recomputation for a subject until the transaction ends. Under
+     * READ COMMITTED the upsert that follows sees what the previous holder committed;
+     * without the lock two writers could each miss the other's rows and the later
+     * commit would keep a stale total.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(" + SUMMARY_LOCK + ", CAST(:subjectId % 2147483647 AS integer))",
+            nativeQuery = true)
+    int lockSubject(@Param("subjectId") Long subjectId);
+    
+    @Query(value = "SELECT COUNT(pg_advisory_xact_lock(" + SUMMARY_LOCK + ", CAST(s.id % 2147483647 AS integer)))"
+            + " FROM (SELECT id FROM subjects ORDER BY id) s", nativeQuery = true)
+    long lockAllSubjects();
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM summary_backfill)", nativeQuery = true)
+    boolean isBackfilled();
+    
+    @Modifying
+    @Query(value = "INSERT INTO summary_backfill (id, completed_at) VALUES (1, now())"
+            + " ON CONFLICT (id) DO UPDATE SET completed_at = EXCLUDED.completed_at", nativeQuery = true)
+    int markBackfilled();
+    
+    @Modifying
+    @Query(value = """
+            WITH pairs AS (
+                SELECT u.id AS student_id, CAST(:subjectId AS bigint) AS subject_id
+                FROM users u WHERE u.id IN (:studentIds)
+            )
+            """ + UPSERT_FROM_PAIRS, nativeQuery = true)
+    int upsertForSubjectAndStudents(@Param("subjectId") Long subjectId, @Param("studentIds") Collection<Long> studentIds);
+    
+    @Modifying
+    @Query(value = """
+            WITH pairs AS (
+                SELECT student_id, subject_id FROM grades WHERE subject_id = :subjectId
+                UNION
+                SELECT student_id, subject_id FROM attendance WHERE subject_id = :subjectId
+                UNION
+                SELECT student_id, subject_id FROM attestations WHERE subject_id = :subjectId
+                UNION
+                SELECT ls.student_id, lt.subject_id FROM lab_submissions ls
+                JOIN lab_templates lt ON lt.id = ls.lab_template_id WHERE lt.subject_id = :subjectId
+                UNION
+                SELECT student_id, subject_id FROM student_subject_summaries WHERE subject_id = :subjectId
+            )
+            """ + UPSERT_FROM_PAIRS, nativeQuery = true)
+    int upsertForSubject(@Param("subjectId") Long subjectId);
+    
+    @Modifying
+    @Query(value = """
+            WITH pairs AS (
+                SELECT student_id, subject_id FROM grades
+                UNION
+                SELECT student_id, subject_id FROM attendance
+                UNION
+                SELECT student_id, subject_id FROM attestations
+                UNION
+                SELECT ls.student_id, lt.subject_id FROM lab_submissions ls
+                JOIN lab_templates lt ON lt.id = ls.lab_template_id
+            )
+            """ + UPSERT_FROM_PAIRS, nativeQuery = true)
+    int upsertAll();
+    
+    @Modifying
+    @Query(value = "DELETE FROM student_subject_summaries WHERE subject_id = :subjectId AND student_id IN (:studentIds) AND "
+            + EMPTY_ROW, nativeQuery = true)
+    int deleteEmptyForSubjectAndStudents(@Param("subjectId") Long subjectId, @Param("studentIds") Collection<Long> studentIds);
+    
+    @Modifying
+    @Query(value = "DELETE FROM student_subject_summaries WHERE subject_id = :subjectId AND " + EMPTY_ROW,
+            nativeQuery = true)
+    int deleteEmptyForSubject(@Param("subjectId") Long subjectId);
+    
+    @Modifying
+    @Query("DELETE FROM StudentSubjectSummary s WHERE s.studentId = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query("DELETE FROM StudentSubjectSummary s WHERE s.subjectId = :subjectId")
+    int deleteBySubjectId(@Param("subjectId") Long subjectId);
+    
+    // No row is returned when the student has no summaries yet
+    @Query(value = """
+            SELECT CAST(COALESCE(SUM(grade_sum) * 1.0 / NULLIF(SUM(grade_count), 0), 0) AS double precision) AS "averageGrade",
+                   SUM(labs_completed) AS "completedLabs",
+                   SUM(labs_total) AS "totalLabs",
+                   SUM(lab_points_earned) AS "earnedPoints",
+                   SUM(lab_points_possible) AS "maxPossiblePoints",
+                   CAST(COALESCE(100.0 * SUM(classes_attended) / NULLIF(SUM(classes_total), 0), 0) AS double precision) AS "attendanceRate"
+            FROM student_subject_summaries
+            WHERE student_id = :studentId
+            HAVING COUNT(*) > 0
+            """, nativeQuery = true)
+    StudentDashboardStats getDashboardStats(@Param("studentId") Long studentId);
+}
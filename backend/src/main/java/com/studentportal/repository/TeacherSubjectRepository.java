@@ -3,14 +3,16 @@ package com.studentportal.repository;
 import com.studentportal.model.TeacherSubject;
 import com.studentportal.model.Subject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TeacherSubjectRepository extends JpaRepository<TeacherSubject, Long> {
+public interface TeacherSubjectRepository extends JpaRepository<TeacherSubject, Long>, BulkSaveRepository<TeacherSubject> {
     List<TeacherSubject> findByTeacherId(Long teacherId);
     List<TeacherSubject> findBySubjectId(Long subjectId);
     Optional<TeacherSubject> findByTeacherIdAndSubjectId(Long teacherId, Long subjectId);
@@ -18,5 +20,13 @@ public interface TeacherSubjectRepository extends JpaRepository<TeacherSubject,
     
     @Query("SELECT ts.subject FROM TeacherSubject ts WHERE ts.teacher.id = :teacherId")
     List<Subject> findSubjectsByTeacherId(Long teacherId);
+    
+    @Modifying
+    @Query("DELETE FROM TeacherSubject ts WHERE ts.teacher.id = :teacherId")
+    int deleteByTeacherId(@Param("teacherId") Long teacherId);
+    
+    @Modifying
+    @Query("DELETE FROM TeacherSubject ts WHERE ts.subject.id = :subjectId")
+    int deleteBySubjectId(@Param("subjectId") Long subjectId);
 }
 
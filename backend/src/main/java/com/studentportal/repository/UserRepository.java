@@ -1,16 +1,72 @@
 package com.studentportal.repository;
 
+import com.studentportal.dto.StudentDashboardStats;
+import com.studentportal.dto.UserView;
 import com.studentportal.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, BulkSaveRepository<User> {
     Optional<User> findByEmail(String email);
     List<User> findByRole(User.Role role);
+    
+    // Lower-cased, for duplicate checks during bulk import
+    @Query("SELECT LOWER(u.email) FROM User u")
+    List<String> findAllEmailsLowerCase();
+    
+    String VIEW_SELECT = "SELECT new com.studentportal.dto.UserView(u.id, u.email, u.firstName, u.lastName, u.role, " +
+                         "u.studentGroup, u.department) FROM User u ";
+    
+    // Keyset page: users after the given id with one of the roles, at most limit rows
+    @Query(VIEW_SELECT +
+           "WHERE u.id > :afterId AND u.role IN :roles " +
+           "AND (:group IS NULL OR u.studentGroup = :group) " +
+           "ORDER BY u.id")
+    List<UserView> findPage(@Param("afterId") long afterId,
+                            @Param("roles") Collection<User.Role> roles,
+                            @Param("group") String group,
+                            Limit limit);
+    
+    @Query(VIEW_SELECT + "WHERE u.role = :role ORDER BY u.id")
+    List<UserView> findViewsByRole(@Param("role") User.Role role);
+    
+    // Lab totals only count templates of subjects the student has any record in
+    @Query(value = """
+            WITH student_subjects AS (
+                SELECT subject_id FROM grades WHERE student_id = :studentId
+                UNION
+                SELECT subject_id FROM attendance WHERE student_id = :studentId
+                UNION
+                SELECT subject_id FROM attestations WHERE student_id = :studentId
+                UNION
+                SELECT lt.subject_id FROM lab_submissions ls
+                JOIN lab_templates lt ON lt.id = ls.lab_template_id
+                WHERE ls.student_id = :studentId
+            )
+            SELECT CAST(COALESCE(g.average_grade, 0) AS double precision) AS "averageGrade",
+                   l.completed_labs AS "completedLabs",
+                   t.total_labs AS "totalLabs",
+                   l.earned_points AS "earnedPoints",
+                   t.max_possible_points AS "maxPossiblePoints",
+                   CAST(COALESCE(100.0 * a.attended / NULLIF(a.total, 0), 0) AS double precision) AS "attendanceRate"
+            FROM (SELECT AVG(value) AS average_grade
+                  FROM grades WHERE student_id = :studentId) g
+            CROSS JOIN (SELECT COUNT(*) AS completed_labs, COALESCE(SUM(points), 0) AS earned_points
+                        FROM lab_submissions WHERE student_id = :studentId) l
+            CROSS JOIN (SELECT COUNT(*) AS total, COUNT(*) FILTER (WHERE present) AS attended
+                        FROM attendance WHERE student_id = :studentId) a
+            CROSS JOIN (SELECT COUNT(*) AS total_labs, COALESCE(SUM(max_points), 0) AS max_possible_points
+                        FROM lab_templates WHERE subject_id IN (SELECT subject_id FROM student_subjects)) t
+            """, nativeQuery = true)
+    StudentDashboardStats getDashboardStats(@Param("studentId") Long studentId);
 }
 
 
@@ -0,0 +1,71 @@
+package com.studentportal.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Principal stored in the security context for JWT-authenticated requests.
+ * Built from token claims only, so no user row is loaded per request.
+ */
+public class AuthenticatedUser implements Principal {
+    private final Long id;
+    private final String email;
+    private final String role;
+    private final long issuedAt;
+    private final long expiresAt;
+    
+    public AuthenticatedUser(Long id, String email, String role) {
+        this(id, email, role, 0L, Long.MAX_VALUE);
+    }
+    
+    public AuthenticatedUser(Long id, String email, String role, long issuedAt, long expiresAt) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+    
+    /** Token issue time, epoch millis; 0 if the token has none. */
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+    
+    /** Token expiration, epoch millis. */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public List<GrantedAuthority> getAuthorities() {
+        if (role == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+    
+    @Override
+    public String getName() {
+        return email;
+    }
+    
+    @Override
+    public String toString() {
+        return email;
+    }
+}
@@ -1,6 +1,6 @@
 package com.studentportal.security;
 
-import com.studentportal.service.CustomUserDetailsService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +8,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,38 +21,52 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Autowired
+    private TokenRevocations tokenRevocations;
+    
+    @Autowired
+    private StreamTickets streamTickets;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
         
-        final String authorizationHeader = request.getHeader("Authorization");
-        
-        String username = null;
-        String jwt = null;
+        final String jwt = bearerToken(request);
+        // EventSource cannot set headers, so event streams are opened with a single-use ticket
+        final String ticket = jwt == null && request.getRequestURI().endsWith("/events")
+                ? request.getParameter("ticket") : null;
         
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
-        }
-        
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if ((jwt != null || ticket != null) && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Token is parsed and verified once; role and user id come from its claims,
+            // so no user lookup is needed per request. Already verified tokens skip the HMAC check.
+            AuthenticatedUser principal = ticket != null ? streamTickets.redeem(ticket) : verifiedTokenCache.get(jwt);
+            if (principal == null && jwt != null) {
+                try {
+                    principal = jwtUtil.parseToken(jwt);
+                    verifiedTokenCache.put(jwt, principal);
+                } catch (JwtException | IllegalArgumentException e) {
+                    // Invalid or expired token: continue unauthenticated
+                }
+            }
             
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+            // Checked on every request, cached or not: revocation must not wait for the cache
+            if (principal != null && principal.getEmail() != null && !tokenRevocations.isRevoked(principal)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        principal, null, principal.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         chain.doFilter(request, response);
     }
+    
+    private static String bearerToken(HttpServletRequest request) {
+        String authorizationHeader = request.getHeader("Authorization");
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            return authorizationHeader.substring(7);
+        }
+        return null;
+    }
 }
-
-
-
-
-
-
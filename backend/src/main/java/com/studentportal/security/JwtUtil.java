@@ -1,8 +1,10 @@
 package com.studentportal.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -15,14 +17,29 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
     
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "uid";
+    
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
+    // Key and parser are immutable and thread-safe, so they are built once
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
     
     public String extractUsername(String token) {
@@ -39,20 +56,47 @@ public class JwtUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
     
+    /**
+     * Verifies signature and expiration in a single parse and returns the caller
+     * described by the token claims. Throws {@link io.jsonwebtoken.JwtException}
+     * if the token is malformed, tampered with or expired.
+     */
+    public AuthenticatedUser parseToken(String token) {
+        return toAuthenticatedUser(extractAllClaims(token));
+    }
+    
+    private AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        Date issuedAt = claims.getIssuedAt();
+        Date tokenExpiration = claims.getExpiration();
+        return new AuthenticatedUser(
+                userId != null ? userId.longValue() : null,
+                claims.getSubject(),
+                claims.get(ROLE_CLAIM, String.class),
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                tokenExpiration != null ? tokenExpiration.getTime() : Long.MAX_VALUE
+        );
+    }
+    
     private Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
     
     public String generateToken(String username, String role) {
+        return generateToken(username, role, null);
+    }
+    
+    public String generateToken(String username, String role, Long userId) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
+        claims.put(ROLE_CLAIM, role);
+        if (userId != null) {
+            claims.put(USER_ID_CLAIM, userId);
+        }
         return createToken(claims, username);
     }
     
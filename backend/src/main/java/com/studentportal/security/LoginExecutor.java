@@ -0,0 +1,78 @@
+package com.studentportal.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password verification for logins on a fixed, core-sized pool with a
+ * bounded queue, so BCrypt work cannot occupy every request thread.
+ * When the queue is full {@link #submit} fails fast with
+ * {@link RejectedExecutionException}.
+ *
+ * Metrics: {@code executor.*{name=login}} (queue depth, active threads),
+ * {@code auth.login.hash} (time spent verifying) and {@code auth.login.rejected}.
+ */
+@Component
+public class LoginExecutor {
+    
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+    
+    public LoginExecutor(@Value("${security.login-executor.threads:0}") int threads,
+                         @Value("${security.login-executor.queue-capacity:200}") int queueCapacity,
+                         MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreads("login-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimer = Timer.builder("auth.login.hash")
+                .description("Time spent verifying login credentials")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.login.rejected")
+                .description("Logins rejected because the login queue was full")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "login", Collections.emptyList()).bindTo(meterRegistry);
+    }
+    
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+    
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
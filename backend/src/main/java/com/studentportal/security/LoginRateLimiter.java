@@ -0,0 +1,108 @@
+package com.studentportal.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket limiter for login attempts, applied per account (email) and per
+ * client address before any password is hashed.
+ *
+ * Each bucket is a single {@link AtomicLong} updated with CAS (GCRA form of the
+ * token bucket), so the request path takes no locks. Buckets live in a Caffeine
+ * map and are dropped after being idle long enough to have refilled completely.
+ */
+@Component
+public class LoginRateLimiter {
+    
+    private final Limit accountLimit;
+    private final Limit addressLimit;
+    private final Cache<String, Bucket> accountBuckets;
+    private final Cache<String, Bucket> addressBuckets;
+    private final Counter rejectedCounter;
+    
+    public LoginRateLimiter(@Value("${security.login-rate-limit.account.capacity:10}") int accountCapacity,
+                            @Value("${security.login-rate-limit.account.refill-interval:6s}") Duration accountRefill,
+                            @Value("${security.login-rate-limit.address.capacity:200}") int addressCapacity,
+                            @Value("${security.login-rate-limit.address.refill-interval:50ms}") Duration addressRefill,
+                            @Value("${security.login-rate-limit.max-keys:100000}") long maxKeys,
+                            MeterRegistry meterRegistry) {
+        this.accountLimit = new Limit(accountCapacity, accountRefill);
+        this.addressLimit = new Limit(addressCapacity, addressRefill);
+        this.accountBuckets = newBucketMap(accountLimit, maxKeys);
+        this.addressBuckets = newBucketMap(addressLimit, maxKeys);
+        this.rejectedCounter = Counter.builder("auth.login.rate-limited")
+                .description("Logins rejected by the per-account or per-address limiter")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Takes one token from both the address and the account bucket.
+     *
+     * @return 0 if the attempt is allowed, otherwise the number of seconds
+     *         the client should wait before retrying
+     */
+    public long tryAcquire(String email, String remoteAddress) {
+        long now = System.nanoTime();
+        long waitNanos = 0;
+        if (remoteAddress != null) {
+            waitNanos = addressBuckets.get(remoteAddress, key -> new Bucket()).tryAcquire(addressLimit, now);
+        }
+        if (waitNanos == 0 && email != null) {
+            String key = email.trim().toLowerCase(Locale.ROOT);
+            waitNanos = accountBuckets.get(key, k -> new Bucket()).tryAcquire(accountLimit, now);
+        }
+        if (waitNanos == 0) {
+            return 0;
+        }
+        rejectedCounter.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+    
+    private static Cache<String, Bucket> newBucketMap(Limit limit, long maxKeys) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(limit.burstNanos))
+                .build();
+    }
+    
+    private static final class Limit {
+        // Time to refill one token, and the time a full bucket represents
+        final long intervalNanos;
+        final long burstNanos;
+        
+        Limit(int capacity, Duration refillInterval) {
+            this.intervalNanos = refillInterval.toNanos();
+            this.burstNanos = intervalNanos * capacity;
+        }
+    }
+    
+    static final class Bucket {
+        // Theoretical arrival time: the moment the bucket would be full again
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        
+        /** @return 0 if a token was taken, otherwise nanos until one is available */
+        long tryAcquire(Limit limit, long now) {
+            while (true) {
+                long current = tat.get();
+                long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                long next = base + limit.intervalNanos;
+                long excess = next - now - limit.burstNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
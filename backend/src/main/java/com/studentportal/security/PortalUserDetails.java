@@ -0,0 +1,42 @@
+package com.studentportal.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * UserDetails that also carries the profile fields needed to answer a login,
+ * so the controller does not have to load the user a second time.
+ */
+public class PortalUserDetails extends User {
+    private final Long id;
+    private final String firstName;
+    private final String lastName;
+    private final String role;
+
+    public PortalUserDetails(Long id, String email, String password, String firstName, String lastName,
+                             String role, Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
@@ -0,0 +1,63 @@
+package com.studentportal.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Single-use tickets for opening an event stream.
+ *
+ * EventSource cannot send an Authorization header, and a bearer token in the URL
+ * would end up in access logs, proxies and browser history. Instead an authenticated
+ * request trades its token for a random ticket that opens one stream: it is deleted
+ * when redeemed and expires after {@code security.stream-ticket.ttl}. Tickets are kept
+ * in stream_tickets, so any instance can redeem them.
+ */
+@Component
+public class StreamTickets {
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${security.stream-ticket.ttl:30s}")
+    private Duration ttl;
+    
+    /** A ticket for the user's token; {@code user} must have an id. */
+    public String issue(AuthenticatedUser user) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long now = System.currentTimeMillis();
+        // Unredeemed tickets of closed tabs are cleared as new ones are issued
+        jdbcTemplate.update("DELETE FROM stream_tickets WHERE expires_at < ?", new Timestamp(now));
+        jdbcTemplate.update("""
+                INSERT INTO stream_tickets (ticket, user_id, email, role, token_issued_at, expires_at)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, ticket, user.getId(), user.getEmail(), user.getRole(), user.getIssuedAt(),
+                new Timestamp(now + ttl.toMillis()));
+        return ticket;
+    }
+    
+    /** The user the ticket was issued to, or null if it is unknown, used or expired. */
+    public AuthenticatedUser redeem(String ticket) {
+        List<AuthenticatedUser> users = jdbcTemplate.query("""
+                DELETE FROM stream_tickets WHERE ticket = ?
+                RETURNING user_id, email, role, token_issued_at, expires_at
+                """, (rs, rowNum) -> new AuthenticatedUser(rs.getLong("user_id"), rs.getString("email"),
+                rs.getString("role"), rs.getLong("token_issued_at"), rs.getTimestamp("expires_at").getTime()),
+                ticket);
+        if (users.isEmpty() || users.get(0).getExpiresAt() < System.currentTimeMillis()) {
+            return null;
+        }
+        return users.get(0);
+    }
+}
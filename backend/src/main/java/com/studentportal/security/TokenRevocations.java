@@ -0,0 +1,111 @@
+package com.studentportal.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-account cutoff for tokens that are still signed and unexpired but must no
+ * longer be accepted: the account was deleted, its role or email changed, or its
+ * password was reset. The filter never loads the user, so it asks here instead.
+ *
+ * Cutoffs are kept in token_revocations, so they survive restarts and reach other
+ * instances, which reload them every {@code jwt.revocation-refresh}. The filter
+ * only reads the in-memory copy. A cutoff is dropped once every token issued
+ * before it has expired anyway.
+ */
+@Component
+public class TokenRevocations {
+    
+    private final Map<String, Long> cutoffs = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final long expirationMillis;
+    private final long refreshMillis;
+    private ScheduledExecutorService reloader;
+    
+    public TokenRevocations(JdbcTemplate jdbcTemplate,
+                            @Value("${jwt.expiration}") long expirationMillis,
+                            @Value("${jwt.revocation-refresh:30s}") Duration refreshInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expirationMillis = expirationMillis;
+        this.refreshMillis = refreshInterval.toMillis();
+    }
+    
+    @PostConstruct
+    void start() {
+        reload();
+        reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocations");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloader.scheduleWithFixedDelay(this::reloadQuietly, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+    
+    /**
+     * Rejects every token of the account issued before the current second. Takes
+     * effect on this instance immediately, even before the surrounding transaction
+     * commits.
+     */
+    public void revoke(String email) {
+        if (email == null) {
+            return;
+        }
+        long cutoff = wholeSeconds(System.currentTimeMillis());
+        cutoffs.merge(email, cutoff, Math::max);
+        jdbcTemplate.update("""
+                INSERT INTO token_revocations (email, revoked_at) VALUES (?, ?)
+                ON CONFLICT (email) DO UPDATE SET revoked_at = GREATEST(token_revocations.revoked_at, EXCLUDED.revoked_at)
+                """, email, new Timestamp(cutoff));
+    }
+    
+    public boolean isRevoked(AuthenticatedUser user) {
+        Long cutoff = cutoffs.get(user.getEmail());
+        // iat has whole seconds, like the cutoff: a token from the second of the revocation
+        // is accepted, so logging in again right after a password or role change works
+        return cutoff != null && user.getIssuedAt() < cutoff;
+    }
+    
+    void reload() {
+        long oldest = System.currentTimeMillis() - expirationMillis;
+        jdbcTemplate.update("DELETE FROM token_revocations WHERE revoked_at < ?", new Timestamp(oldest));
+        // Merged rather than replaced: a revocation whose transaction has not committed yet is kept
+        jdbcTemplate.query("SELECT email, revoked_at FROM token_revocations",
+                rs -> {
+                    long cutoff = wholeSeconds(rs.getTimestamp("revoked_at").getTime());
+                    cutoffs.merge(rs.getString("email"), cutoff, Math::max);
+                });
+        cutoffs.values().removeIf(cutoff -> cutoff < oldest);
+    }
+    
+    private static long wholeSeconds(long millis) {
+        return millis - Math.floorMod(millis, 1000L);
+    }
+    
+    // Keeps the cutoffs it has when the database is unavailable; retried on the next run
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            // next run
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.studentportal.service;
+
+import com.studentportal.dto.ChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event streams that tell dashboards when their data changed.
+ *
+ * Streams are held per student and per subject. {@link #publish} is called after a
+ * write commits and only queues the events: each stream has its own queue, drained
+ * by a small pool of sender threads, so neither the writing request nor other
+ * streams wait on a slow client. A stream whose queue backs up beyond
+ * {@code notifications.max-queued-events}, or whose connection fails, is dropped.
+ * Streams only hear of writes made through this instance; clients of other instances
+ * catch up through the ETags of their next read.
+ *
+ * Metric: {@code sse.connections} (open streams).
+ */
+@Service
+public class ChangeNotificationService {
+    
+    private final Map<Long, Set<Subscriber>> studentStreams = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> subjectStreams = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeats;
+    private final ExecutorService senders;
+    private final long emitterTimeoutMillis;
+    private final int maxQueuedEvents;
+    
+    public ChangeNotificationService(@Value("${notifications.emitter-timeout:30m}") Duration emitterTimeout,
+                                     @Value("${notifications.heartbeat-interval:25s}") Duration heartbeatInterval,
+                                     @Value("${notifications.sender-threads:4}") int senderThreads,
+                                     @Value("${notifications.max-queued-events:100}") int maxQueuedEvents,
+                                     MeterRegistry meterRegistry) {
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.maxQueuedEvents = maxQueuedEvents;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "sse-heartbeat"));
+        AtomicInteger senderNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads,
+                runnable -> daemon(runnable, "sse-sender-" + senderNumber.incrementAndGet()));
+        long heartbeatMillis = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        Gauge.builder("sse.connections", this, ChangeNotificationService::connections)
+                .description("Open change notification streams")
+                .register(meterRegistry);
+    }
+    
+    public SseEmitter subscribeStudent(Long studentId) {
+        return subscribe(studentStreams, studentId);
+    }
+    
+    public SseEmitter subscribeSubject(Long subjectId) {
+        return subscribe(subjectStreams, subjectId);
+    }
+    
+    /**
+     * Announces committed changes: the students touched in each subject, and subjects
+     * changed as a whole. {@code kinds} covers the whole transaction.
+     */
+    public void publish(Map<Long, ? extends Collection<Long>> studentsBySubject, Collection<Long> wholeSubjects,
+                        Set<ChangeEvent.Kind> kinds) {
+        if (studentStreams.isEmpty() && subjectStreams.isEmpty()) {
+            return;
+        }
+        Set<ChangeEvent.Kind> eventKinds = Set.copyOf(kinds);
+        studentsBySubject.forEach((subjectId, studentIds) -> {
+            List<Long> touched = List.copyOf(studentIds);
+            broadcast(subjectStreams, subjectId, new ChangeEvent(subjectId, touched, eventKinds));
+            ChangeEvent studentEvent = new ChangeEvent(subjectId, null, eventKinds);
+            touched.forEach(studentId -> broadcast(studentStreams, studentId, studentEvent));
+        });
+        wholeSubjects.forEach(subjectId ->
+                broadcast(subjectStreams, subjectId, new ChangeEvent(subjectId, null, eventKinds)));
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        studentStreams.values().forEach(streams -> streams.forEach(subscriber -> subscriber.emitter.complete()));
+        subjectStreams.values().forEach(streams -> streams.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+    
+    private SseEmitter subscribe(Map<Long, Set<Subscriber>> streams, Long key) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, () -> remove(streams, key, emitter));
+        streams.compute(key, (k, set) -> {
+            Set<Subscriber> subscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            subscribers.add(subscriber);
+            return subscribers;
+        });
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(e -> subscriber.detach());
+        // Sent once the response starts, so the client sees the stream open right away
+        subscriber.offer(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+    
+    private void broadcast(Map<Long, Set<Subscriber>> streams, Long key, ChangeEvent event) {
+        Set<Subscriber> subscribers = streams.get(key);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().name("change").data(event)));
+        }
+    }
+    
+    // Comments keep idle connections open through proxies and reveal dead ones
+    private void heartbeat() {
+        studentStreams.values().forEach(streams -> streams.forEach(subscriber -> subscriber.offer(ping())));
+        subjectStreams.values().forEach(streams -> streams.forEach(subscriber -> subscriber.offer(ping())));
+    }
+    
+    private static SseEmitter.SseEventBuilder ping() {
+        return SseEmitter.event().comment("ping");
+    }
+    
+    private static void remove(Map<Long, Set<Subscriber>> streams, Long key, SseEmitter emitter) {
+        streams.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.removeIf(subscriber -> subscriber.emitter == emitter);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+    
+    private double connections() {
+        return studentStreams.values().stream().mapToInt(Set::size).sum()
+                + subjectStreams.values().stream().mapToInt(Set::size).sum();
+    }
+    
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+    
+    /**
+     * One open stream. Events are queued without blocking and written by at most one
+     * sender thread at a time, in order. The emitter is only ever completed by that
+     * thread: completing waits for a write in progress, which may be stuck on a slow client.
+     */
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final Runnable remove;
+        final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+        volatile boolean completed;
+        
+        Subscriber(SseEmitter emitter, Runnable remove) {
+            this.emitter = emitter;
+            this.remove = remove;
+        }
+        
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueuedEvents) {
+                // The client does not keep up; it reconnects and reloads
+                close();
+                return;
+            }
+            queue.add(event);
+            schedule();
+        }
+        
+        // The emitter finished on its own (completion, timeout, error): stop writing
+        void detach() {
+            completed = true;
+            closed = true;
+            remove.run();
+        }
+        
+        private void close() {
+            closed = true;
+            remove.run();
+            schedule();
+        }
+        
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (!send(event)) {
+                        closed = true;
+                        remove.run();
+                    }
+                }
+                if (closed && !completed) {
+                    completed = true;
+                    queue.clear();
+                    emitter.complete();
+                }
+            } finally {
+                draining.set(false);
+            }
+            // Offered or closed after the checks above but before the flag was cleared
+            if (closed ? !completed : !queue.isEmpty()) {
+                schedule();
+            }
+        }
+        
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.studentportal.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.studentportal.model.User;
 import com.studentportal.repository.UserRepository;
+import com.studentportal.security.PortalUserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Collections;
 
 @Service
@@ -17,17 +24,59 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
     
+    // Snapshots rather than UserDetails: ProviderManager erases credentials of the
+    // returned instance after login, so every call gets a fresh UserDetails
+    private final Cache<String, CachedUser> cache;
+    
+    public CustomUserDetailsService(@Value("${security.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${security.user-cache.ttl:10m}") Duration ttl,
+                                    MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user-details");
+    }
+    
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+        CachedUser user = cache.get(email, this::loadFromDatabase);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + email);
+        }
         
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+        return new PortalUserDetails(
+                user.id(),
+                user.email(),
+                user.password(),
+                user.firstName(),
+                user.lastName(),
+                user.role().name(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.role().name()))
         );
     }
+    
+    /**
+     * Drops the cached entry for the given email. Must be called after a user
+     * is created, updated or deleted so the change takes effect immediately.
+     */
+    public void evict(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+    
+    private CachedUser loadFromDatabase(String email) {
+        return userRepository.findByEmail(email)
+                .map(user -> new CachedUser(user.getId(), user.getEmail(), user.getPassword(),
+                        user.getFirstName(), user.getLastName(), user.getRole()))
+                .orElse(null);
+    }
+    
+    private record CachedUser(Long id, String email, String password, String firstName, String lastName,
+                              User.Role role) {
+    }
 }
 
 
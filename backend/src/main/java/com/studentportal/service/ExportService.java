@@ -0,0 +1,172 @@
+package com.studentportal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.studentportal.dto.AttendanceView;
+import com.studentportal.dto.GradeView;
+import com.studentportal.repository.AttendanceRepository;
+import com.studentportal.repository.GradeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes grade and attendance exports straight to an output stream.
+ *
+ * Rows come from a forward-only cursor read in fixed-size batches and are
+ * written as they arrive. They are DTO projections, so nothing is added to the
+ * persistence context, and memory stays flat no matter how many rows are exported.
+ */
+@Service
+public class ExportService {
+    
+    public enum Format {
+        CSV("text/csv; charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        /** The format named by a request parameter, case-insensitive, or null if there is none. */
+        public static Format parse(String value) {
+            String name = value.trim().toUpperCase(Locale.ROOT);
+            for (Format format : values()) {
+                if (format.name().equals(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+        
+        /** Names accepted by {@link #parse}, for error messages. */
+        public static String supported() {
+            return Arrays.stream(values())
+                    .map(format -> format.name().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.joining(", "));
+        }
+    }
+    
+    private static final List<String> GRADE_COLUMNS = List.of(
+            "id", "student_id", "last_name", "first_name", "student_group",
+            "subject_id", "subject", "value", "description", "created_at");
+    
+    private static final List<String> ATTENDANCE_COLUMNS = List.of(
+            "id", "student_id", "last_name", "first_name", "student_group",
+            "subject_id", "subject", "date", "present", "note");
+    
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    
+    @Autowired
+    private GradeRepository gradeRepository;
+    
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // A transaction is required: PostgreSQL only honours the fetch size outside auto-commit
+    @Transactional(readOnly = true)
+    public long exportGrades(Long subjectId, String group, LocalDateTime from, LocalDateTime to,
+                             Format format, OutputStream out) throws IOException {
+        try (Stream<GradeView> rows = gradeRepository.streamForExport(subjectId, group, from, to)) {
+            return write(rows, format, GRADE_COLUMNS, grade -> new Object[] {
+                    grade.id(), grade.student().id(), grade.student().lastName(), grade.student().firstName(),
+                    grade.student().studentGroup(), grade.subject().id(), grade.subject().name(),
+                    grade.value(), grade.description(), grade.createdAt()
+            }, out);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public long exportAttendance(Long subjectId, String group, LocalDate from, LocalDate to,
+                                 Format format, OutputStream out) throws IOException {
+        try (Stream<AttendanceView> rows = attendanceRepository.streamForExport(subjectId, group, from, to)) {
+            return write(rows, format, ATTENDANCE_COLUMNS, attendance -> new Object[] {
+                    attendance.id(), attendance.student().id(), attendance.student().lastName(),
+                    attendance.student().firstName(), attendance.student().studentGroup(),
+                    attendance.subject().id(), attendance.subject().name(),
+                    attendance.date(), attendance.present(), attendance.note()
+            }, out);
+        }
+    }
+    
+    private <T> long write(Stream<T> rows, Format format, List<String> columns,
+                           Function<T, Object[]> toCells, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        long count = 0;
+        if (format == Format.NDJSON) {
+            SequenceWriter sequence = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(writer);
+            for (Iterator<T> it = rows.iterator(); it.hasNext(); count++) {
+                sequence.write(it.next());
+            }
+            sequence.flush();
+            if (count > 0) {
+                writer.write('\n');
+            }
+        } else {
+            writeCsvLine(writer, columns.toArray());
+            for (Iterator<T> it = rows.iterator(); it.hasNext(); count++) {
+                writeCsvLine(writer, toCells.apply(it.next()));
+            }
+        }
+        writer.flush();
+        return count;
+    }
+    
+    private static void writeCsvLine(Writer writer, Object[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (cells[i] != null) {
+                writeCsvCell(writer, cells[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+    
+    // RFC 4180: quote cells containing separators, quotes or line breaks, doubling inner quotes
+    private static void writeCsvCell(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,146 @@
+package com.studentportal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studentportal.dto.LabTemplateView;
+import com.studentportal.dto.UserView;
+import com.studentportal.model.Subject;
+import com.studentportal.model.User;
+import com.studentportal.repository.LabTemplateRepository;
+import com.studentportal.repository.SubjectRepository;
+import com.studentportal.repository.TeacherSubjectRepository;
+import com.studentportal.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-process cache of rarely changing reference data: subjects, teachers,
+ * lab templates and the subjects each teacher is subscribed to.
+ *
+ * Writers call the matching {@code ...Changed()} method, which bumps the structural
+ * version in {@link ResourceVersionService} together with the write. Entries are
+ * keyed by that version, read from the database on every lookup, so a write made
+ * through another instance is seen as soon as it commits, and a read racing a write
+ * can only file rows at least as new as its key. Entries of this instance's writes
+ * are also dropped once they commit. Cached lists are immutable.
+ *
+ * Metrics: {@code cache.*{cache=reference-...}} (hits, misses, evictions, size).
+ */
+@Service
+public class ReferenceDataService {
+    
+    @Autowired
+    private SubjectRepository subjectRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private LabTemplateRepository labTemplateRepository;
+    
+    @Autowired
+    private TeacherSubjectRepository teacherSubjectRepository;
+    
+    @Autowired
+    private ResourceVersionService versions;
+    
+    private final Cache<Long, List<Subject>> subjects;
+    private final Cache<Long, List<UserView>> teachers;
+    private final Cache<Long, List<LabTemplateView>> labTemplates;
+    private final Cache<List<Long>, List<LabTemplateView>> labTemplatesBySubject;
+    private final Cache<List<Long>, List<Subject>> subjectsByTeacher;
+    
+    public ReferenceDataService(@Value("${reference-cache.max-size:1000}") long maxSize,
+                                @Value("${reference-cache.ttl:10m}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.subjects = newCache(maxSize, ttl, meterRegistry, "reference-subjects");
+        this.teachers = newCache(maxSize, ttl, meterRegistry, "reference-teachers");
+        this.labTemplates = newCache(maxSize, ttl, meterRegistry, "reference-lab-templates");
+        this.labTemplatesBySubject = newCache(maxSize, ttl, meterRegistry, "reference-lab-templates-by-subject");
+        this.subjectsByTeacher = newCache(maxSize, ttl, meterRegistry, "reference-teacher-subjects");
+    }
+    
+    public List<Subject> getSubjects() {
+        return subjects.get(versions.structureVersion(), key -> List.copyOf(subjectRepository.findAll()));
+    }
+    
+    public List<UserView> getTeachers() {
+        return teachers.get(versions.structureVersion(),
+                key -> List.copyOf(userRepository.findViewsByRole(User.Role.TEACHER)));
+    }
+    
+    public List<LabTemplateView> getLabTemplates() {
+        return labTemplates.get(versions.structureVersion(), key -> List.copyOf(labTemplateRepository.findAllViews()));
+    }
+    
+    public List<LabTemplateView> getLabTemplatesBySubject(Long subjectId) {
+        return labTemplatesBySubject.get(List.of(versions.structureVersion(), subjectId),
+                key -> List.copyOf(labTemplateRepository.findViewsBySubjectId(subjectId)));
+    }
+    
+    public List<Subject> getSubjectsByTeacher(Long teacherId) {
+        return subjectsByTeacher.get(List.of(versions.structureVersion(), teacherId),
+                key -> List.copyOf(teacherSubjectRepository.findSubjectsByTeacherId(teacherId)));
+    }
+    
+    /** After a subject is created, renamed or deleted; its name appears in every list. */
+    public void subjectsChanged() {
+        afterCommit(() -> {
+            subjects.invalidateAll();
+            labTemplates.invalidateAll();
+            labTemplatesBySubject.invalidateAll();
+            subjectsByTeacher.invalidateAll();
+        });
+    }
+    
+    /** After a user is created, updated or deleted. */
+    public void usersChanged() {
+        afterCommit(() -> {
+            teachers.invalidateAll();
+            subjectsByTeacher.invalidateAll();
+        });
+    }
+    
+    public void labTemplatesChanged() {
+        afterCommit(() -> {
+            labTemplates.invalidateAll();
+            labTemplatesBySubject.invalidateAll();
+        });
+    }
+    
+    public void subscriptionsChanged(Long teacherId) {
+        afterCommit(subjectsByTeacher::invalidateAll);
+    }
+    
+    private void afterCommit(Runnable invalidation) {
+        versions.changedStructure();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidation.run();
+            }
+        });
+    }
+    
+    private static <K, V> Cache<K, V> newCache(long maxSize, Duration ttl, MeterRegistry meterRegistry, String name) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+}
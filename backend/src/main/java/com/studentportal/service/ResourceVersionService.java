@@ -0,0 +1,153 @@
+package com.studentportal.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Version counters behind the ETags of the student and teacher read endpoints.
+ *
+ * Each subject and each student has its own counter, bumped when one of its grades,
+ * labs, attendance records or attestations changes. Changes that fan out across many
+ * of them (users, subjects, lab templates, subscriptions) bump the structural counter
+ * instead, which is part of every tag. Every write bumps the counter behind
+ * {@link #anyTag}.
+ *
+ * Counters are rows of resource_versions. A transaction collects its changes and
+ * bumps them in one batch right before it commits, after the summaries are
+ * recomputed, so every instance sees a new version exactly when the data it stands
+ * for commits and a tag is never newer than the data it was served with. Rows are
+ * bumped in a fixed order (subjects, students, reference data, any), so concurrent
+ * writers never wait on each other's rows crosswise. Reading a tag is one primary
+ * key lookup.
+ */
+@Service
+public class ResourceVersionService {
+    
+    private static final String SUBJECT = "sb";
+    private static final String STUDENT = "st";
+    private static final String STRUCTURE = "ref";
+    private static final String ANY = "any";
+    
+    private static final String TAG_SQL = "SELECT COALESCE(MAX(version) FILTER (WHERE kind = 'ref'), 0), "
+            + "COALESCE(MAX(version) FILTER (WHERE kind = ?), 0) FROM resource_versions "
+            + "WHERE (kind = 'ref' AND key = 0) OR (kind = ? AND key = ?)";
+    
+    private static final String BUMP_SQL = "INSERT INTO resource_versions (kind, key, version) VALUES (?, ?, 1) "
+            + "ON CONFLICT (kind, key) DO UPDATE SET version = resource_versions.version + 1";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /** For data of one student: their grades, labs, attendance, attestations and dashboard. */
+    public String studentTag(Long studentId) {
+        return tag(STUDENT, studentId);
+    }
+    
+    /** For data of one subject across its students. */
+    public String subjectTag(Long subjectId) {
+        return tag(SUBJECT, subjectId);
+    }
+    
+    /** For reference lists: users, subjects, lab templates, subscriptions. */
+    public String structureTag() {
+        return tag(STRUCTURE, 0L);
+    }
+    
+    /** For data spanning several subjects; changes with every write. */
+    public String anyTag() {
+        return tag(ANY, 0L);
+    }
+    
+    /** The structural counter on its own, for caches of reference data. */
+    public long structureVersion() {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM resource_versions WHERE kind = 'ref' AND key = 0", Long.class);
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+    
+    /** A grade, lab, attendance record or attestation of the student in the subject changed. */
+    public void changed(Long subjectId, Long studentId) {
+        record(pending -> {
+            pending.subjects.add(subjectId);
+            pending.students.add(studentId);
+        });
+    }
+    
+    /** The subject changed as a whole (lab templates), which affects every student's data. */
+    public void changedSubject(Long subjectId) {
+        record(pending -> {
+            pending.subjects.add(subjectId);
+            pending.structure = true;
+        });
+    }
+    
+    /** Invalidates every tag once the current transaction commits, or right away outside one. */
+    public void changedStructure() {
+        record(pending -> pending.structure = true);
+    }
+    
+    private String tag(String kind, long key) {
+        return jdbcTemplate.queryForObject(TAG_SQL,
+                (rs, rowNum) -> "\"" + kind + key + "-" + rs.getLong(1) + "-" + rs.getLong(2) + "\"",
+                kind, kind, key);
+    }
+    
+    private void record(Consumer<PendingBump> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingBump pending = new PendingBump();
+            change.accept(pending);
+            bump(pending);
+            return;
+        }
+        PendingBump pending = (PendingBump) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingBump();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        change.accept(pending);
+    }
+    
+    private void bump(PendingBump pending) {
+        List<Object[]> rows = new ArrayList<>();
+        pending.subjects.forEach(subjectId -> rows.add(new Object[] {SUBJECT, subjectId}));
+        pending.students.forEach(studentId -> rows.add(new Object[] {STUDENT, studentId}));
+        if (pending.structure) {
+            rows.add(new Object[] {STRUCTURE, 0L});
+        }
+        rows.add(new Object[] {ANY, 0L});
+        jdbcTemplate.batchUpdate(BUMP_SQL, rows);
+    }
+    
+    private class PendingBump implements TransactionSynchronization {
+        final Set<Long> subjects = new TreeSet<>();
+        final Set<Long> students = new TreeSet<>();
+        boolean structure;
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            bump(this);
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ResourceVersionService.this);
+        }
+        
+        // After every other beforeCommit callback, in particular the summary recomputation
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
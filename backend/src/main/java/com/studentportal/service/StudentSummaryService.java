@@ -0,0 +1,194 @@
+package com.studentportal.service;
+
+import com.studentportal.dto.ChangeEvent;
+import com.studentportal.model.*;
+import com.studentportal.repository.StudentSubjectSummaryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maintains the student_subject_summaries read model.
+ *
+ * Writers call {@code refresh(...)} inside their transaction. Affected rows are
+ * collected and recomputed once each, with set-based statements, right before
+ * that transaction commits, so the summary always commits together with the write.
+ * Transactions recomputing the same subject take turns (see
+ * {@link StudentSubjectSummaryRepository#lockSubject}).
+ * The same students and subjects get new versions in {@link ResourceVersionService}
+ * within the transaction and, once it has committed, are announced to open event
+ * streams by {@link ChangeNotificationService}.
+ */
+@Service
+public class StudentSummaryService {
+    
+    @Autowired
+    private StudentSubjectSummaryRepository summaryRepository;
+    
+    @Autowired
+    private ResourceVersionService versions;
+    
+    @Autowired
+    private ChangeNotificationService notifications;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private volatile boolean backfilled;
+    
+    @Transactional
+    public void refresh(Long studentId, Long subjectId) {
+        refresh(studentId, subjectId, null);
+    }
+    
+    public void refresh(Grade grade) {
+        refresh(idOf(grade.getStudent()), idOf(grade.getSubject()), ChangeEvent.Kind.GRADE);
+    }
+    
+    public void refresh(Attendance attendance) {
+        refresh(idOf(attendance.getStudent()), idOf(attendance.getSubject()), ChangeEvent.Kind.ATTENDANCE);
+    }
+    
+    public void refresh(Attestation attestation) {
+        refresh(idOf(attestation.getStudent()), idOf(attestation.getSubject()), ChangeEvent.Kind.ATTESTATION);
+    }
+    
+    public void refresh(LabSubmission labSubmission) {
+        LabTemplate labTemplate = labSubmission.getLabTemplate();
+        refresh(idOf(labSubmission.getStudent()), labTemplate != null ? idOf(labTemplate.getSubject()) : null,
+                ChangeEvent.Kind.LAB);
+    }
+    
+    /** Recomputes every row of a subject, e.g. after its lab templates changed. */
+    @Transactional
+    public void refreshSubject(Long subjectId) {
+        if (subjectId != null) {
+            PendingRefresh pending = pending();
+            pending.subjects.add(subjectId);
+            pending.kinds.add(ChangeEvent.Kind.LAB_TEMPLATE);
+            versions.changedSubject(subjectId);
+        }
+    }
+    
+    /** For writes made without entities, e.g. native upserts. */
+    public void refresh(Long studentId, Long subjectId, ChangeEvent.Kind kind) {
+        if (studentId != null && subjectId != null) {
+            PendingRefresh pending = pending();
+            pending.studentsBySubject.computeIfAbsent(subjectId, id -> new LinkedHashSet<>()).add(studentId);
+            if (kind != null) {
+                pending.kinds.add(kind);
+            }
+            versions.changed(subjectId, studentId);
+        }
+    }
+    
+    @Transactional
+    public int deleteForStudent(Long studentId) {
+        return summaryRepository.deleteByStudentId(studentId);
+    }
+    
+    @Transactional
+    public int deleteForSubject(Long subjectId) {
+        return summaryRepository.deleteBySubjectId(subjectId);
+    }
+    
+    /** Drops and recomputes the whole read model; used for backfill. */
+    @Transactional
+    public int rebuildAll() {
+        entityManager.flush();
+        summaryRepository.lockAllSubjects();
+        summaryRepository.deleteAllInBatch();
+        int rows = summaryRepository.upsertAll();
+        summaryRepository.markBackfilled();
+        return rows;
+    }
+    
+    /**
+     * Whether the read model covers all data. Until the first {@link #rebuildAll} it
+     * only holds rows written since, so readers fall back to the source tables.
+     */
+    public boolean isBackfilled() {
+        // Never reverts once set, so other instances' rebuilds are picked up on the next call
+        if (!backfilled) {
+            backfilled = summaryRepository.isBackfilled();
+        }
+        return backfilled;
+    }
+    
+    private PendingRefresh pending() {
+        PendingRefresh pending = (PendingRefresh) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingRefresh();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+    
+    private void apply(PendingRefresh pending) {
+        // Pending entity changes must be visible to the native statements
+        entityManager.flush();
+        // Ascending order, so two transactions never wait on each other's locks
+        Set<Long> subjectIds = new TreeSet<>(pending.subjects);
+        subjectIds.addAll(pending.studentsBySubject.keySet());
+        subjectIds.forEach(summaryRepository::lockSubject);
+        for (Long subjectId : pending.subjects) {
+            summaryRepository.upsertForSubject(subjectId);
+            summaryRepository.deleteEmptyForSubject(subjectId);
+        }
+        // One statement pair per subject, however many of its students were touched
+        pending.studentsBySubject.forEach((subjectId, studentIds) -> {
+            if (!pending.subjects.contains(subjectId)) {
+                summaryRepository.upsertForSubjectAndStudents(subjectId, studentIds);
+                summaryRepository.deleteEmptyForSubjectAndStudents(subjectId, studentIds);
+            }
+        });
+    }
+    
+    private static Long idOf(User user) {
+        return user != null ? user.getId() : null;
+    }
+    
+    private static Long idOf(Subject subject) {
+        return subject != null ? subject.getId() : null;
+    }
+    
+    private class PendingRefresh implements TransactionSynchronization {
+        final Map<Long, Set<Long>> studentsBySubject = new LinkedHashMap<>();
+        final Set<Long> subjects = new LinkedHashSet<>();
+        final Set<ChangeEvent.Kind> kinds = EnumSet.noneOf(ChangeEvent.Kind.class);
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            apply(this);
+        }
+        
+        // Before ResourceVersionService bumps the versions, which goes last
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+        
+        @Override
+        public void afterCommit() {
+            notifications.publish(studentsBySubject, subjects, kinds);
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StudentSummaryService.this);
+        }
+    }
+}
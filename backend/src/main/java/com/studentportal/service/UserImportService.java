@@ -0,0 +1,342 @@
+package com.studentportal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.studentportal.dto.UserImportEvent;
+import com.studentportal.dto.UserImportRow;
+import com.studentportal.model.User;
+import com.studentportal.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Creates users from a CSV or NDJSON upload.
+ *
+ * The file is read in chunks. Each chunk is validated against the e-mails
+ * already in the database (fetched once) and earlier lines of the file,
+ * its passwords are hashed in parallel on a dedicated pool, and it is saved
+ * in JDBC batches in its own transaction. Rejected rows and running totals
+ * are written to the report stream as NDJSON while the import runs.
+ *
+ * CSV needs a header row; columns are matched by name ({@code email},
+ * {@code password}, {@code firstName} or {@code first_name}, ...), in any order.
+ */
+@Service
+public class UserImportService {
+    
+    private static final int CHUNK_SIZE = 1000;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    
+    @Autowired
+    private ReferenceDataService referenceData;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final ForkJoinPool hashingPool;
+    
+    public UserImportService(@Value("${security.user-import.threads:0}") int threads) {
+        this.hashingPool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdown();
+    }
+    
+    public UserImportEvent importUsers(InputStream in, ExportService.Format format, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        SequenceWriter report = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        RowSource source = format == ExportService.Format.NDJSON ? new NdjsonSource(reader) : new CsvSource(reader);
+        Import job = new Import(new HashSet<>(userRepository.findAllEmailsLowerCase()), report);
+        
+        List<PendingUser> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (SourceRow row = source.next(); row != null; row = source.next()) {
+            job.processed++;
+            PendingUser user = job.accept(row);
+            if (user != null) {
+                chunk.add(user);
+            }
+            if (chunk.size() >= CHUNK_SIZE) {
+                job.save(chunk);
+            }
+        }
+        job.save(chunk);
+        
+        UserImportEvent done = UserImportEvent.done(job.processed, job.created, job.failed);
+        report.write(done);
+        report.flush();
+        out.write('\n');
+        out.flush();
+        return done;
+    }
+    
+    private record SourceRow(long line, UserImportRow row, String error) {
+    }
+    
+    private record PendingUser(long line, User user) {
+    }
+    
+    private class Import {
+        
+        private final Set<String> emails;
+        private final SequenceWriter report;
+        private long processed;
+        private long created;
+        private long failed;
+        
+        Import(Set<String> emails, SequenceWriter report) {
+            this.emails = emails;
+            this.report = report;
+        }
+        
+        PendingUser accept(SourceRow source) throws IOException {
+            UserImportRow row = source.row();
+            String error = source.error() != null ? source.error() : validate(row);
+            if (error == null && !emails.add(row.email().trim().toLowerCase(Locale.ROOT))) {
+                error = "Пользователь с таким email уже существует";
+            }
+            if (error != null) {
+                reject(source.line(), row != null ? row.email() : null, error);
+                return null;
+            }
+            
+            User user = new User();
+            user.setEmail(row.email().trim());
+            user.setPassword(row.password());
+            user.setFirstName(row.firstName().trim());
+            user.setLastName(row.lastName().trim());
+            user.setRole(User.Role.valueOf(row.role().trim().toUpperCase(Locale.ROOT)));
+            user.setStudentGroup(blankToNull(row.studentGroup()));
+            user.setDepartment(blankToNull(row.department()));
+            return new PendingUser(source.line(), user);
+        }
+        
+        void save(List<PendingUser> chunk) throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                hashingPool.submit(() -> chunk.parallelStream()
+                        .forEach(pending -> pending.user().setPassword(passwordEncoder.encode(pending.user().getPassword()))))
+                        .get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("User import interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            
+            try {
+                userRepository.bulkSave(chunk.stream().map(PendingUser::user).toList());
+                created += chunk.size();
+                chunk.forEach(pending -> userDetailsService.evict(pending.user().getEmail()));
+                referenceData.usersChanged();
+            } catch (DataAccessException e) {
+                // Usually an e-mail created by someone else after the import started: the chunk is rolled back
+                for (PendingUser pending : chunk) {
+                    reject(pending.line(), pending.user().getEmail(), "Не удалось сохранить: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+            chunk.clear();
+            report.write(UserImportEvent.progress(processed, created, failed));
+            report.flush();
+        }
+        
+        private void reject(long line, String email, String message) throws IOException {
+            failed++;
+            report.write(UserImportEvent.error(line, email, message));
+        }
+    }
+    
+    private static String validate(UserImportRow row) {
+        if (isBlank(row.email()) || isBlank(row.password()) || isBlank(row.firstName())
+                || isBlank(row.lastName()) || isBlank(row.role())) {
+            return "Обязательные поля: email, password, firstName, lastName, role";
+        }
+        if (row.email().indexOf('@') <= 0) {
+            return "Некорректный email";
+        }
+        try {
+            User.Role.valueOf(row.role().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return "Неизвестная роль: " + row.role();
+        }
+        return null;
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+    
+    private static String blankToNull(String value) {
+        return isBlank(value) ? null : value.trim();
+    }
+    
+    private interface RowSource {
+        // null at end of input
+        SourceRow next() throws IOException;
+    }
+    
+    private class NdjsonSource implements RowSource {
+        
+        private final BufferedReader reader;
+        private long line;
+        
+        NdjsonSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public SourceRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new SourceRow(line, objectMapper.readValue(text, UserImportRow.class), null);
+            } catch (JsonProcessingException e) {
+                return new SourceRow(line, null, "Некорректный JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+    
+    private static class CsvSource implements RowSource {
+        
+        private static final List<String> COLUMNS = List.of(
+                "email", "password", "firstname", "lastname", "role", "studentgroup", "department");
+        
+        private final BufferedReader reader;
+        private long line;
+        private long recordLine;
+        private int[] columnIndex;
+        
+        CsvSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public SourceRow next() throws IOException {
+            if (columnIndex == null) {
+                List<String> header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                columnIndex = mapHeader(header);
+            }
+            List<String> cells;
+            do {
+                cells = readRecord();
+            } while (cells != null && cells.size() == 1 && cells.get(0).isBlank());
+            if (cells == null) {
+                return null;
+            }
+            String[] values = new String[COLUMNS.size()];
+            for (int i = 0; i < values.length; i++) {
+                int index = columnIndex[i];
+                values[i] = index >= 0 && index < cells.size() ? cells.get(index) : null;
+            }
+            return new SourceRow(recordLine, new UserImportRow(values[0], values[1], values[2], values[3],
+                    values[4], values[5], values[6]), null);
+        }
+        
+        private int[] mapHeader(List<String> header) {
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).replace("\uFEFF", "").replace("_", "").trim().toLowerCase(Locale.ROOT);
+                positions.putIfAbsent(name, i);
+            }
+            int[] index = new int[COLUMNS.size()];
+            for (int i = 0; i < index.length; i++) {
+                index[i] = positions.getOrDefault(COLUMNS.get(i), -1);
+            }
+            return index;
+        }
+        
+        // RFC 4180: quoted cells may contain separators, doubled quotes and line breaks
+        private List<String> readRecord() throws IOException {
+            String text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            recordLine = ++line;
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    text = reader.readLine();
+                    if (text == null) {
+                        // Unterminated quote: keep what was read as the last cell
+                        break;
+                    }
+                    line++;
+                    cell.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        cell.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else {
+                    cell.append(c);
+                }
+            }
+            cells.add(cell.toString());
+            return cells;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+-- Schema as Hibernate generated it before migrations were introduced. Databases
+-- created back then by ddl-auto are baselined at version 0 (spring.flyway.baseline-on-migrate)
+-- and run this script too, so every statement tolerates objects that already exist and
+-- constraint names are the ones Hibernate generated.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS subjects_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS teacher_subjects_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lab_templates_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lab_submissions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS grades_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS attendance_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS attestations_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id            BIGINT       NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    first_name    VARCHAR(255) NOT NULL,
+    last_name     VARCHAR(255) NOT NULL,
+    role          VARCHAR(255) NOT NULL,
+    student_group VARCHAR(255),
+    department    VARCHAR(255),
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email),
+    CONSTRAINT users_role_check CHECK (role IN ('STUDENT', 'TEACHER', 'ADMIN'))
+);
+
+CREATE TABLE IF NOT EXISTS subjects (
+    id          BIGINT       NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    CONSTRAINT subjects_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS teacher_subjects (
+    id         BIGINT NOT NULL,
+    teacher_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    CONSTRAINT teacher_subjects_pkey PRIMARY KEY (id),
+    CONSTRAINT fkq4e6w8v6kqcd1ua0eaui9jho FOREIGN KEY (teacher_id) REFERENCES users (id),
+    CONSTRAINT fkdweqkwxroox2u7pbmksehx04i FOREIGN KEY (subject_id) REFERENCES subjects (id)
+);
+
+CREATE TABLE IF NOT EXISTS lab_templates (
+    id           BIGINT       NOT NULL,
+    title        VARCHAR(255) NOT NULL,
+    description  TEXT,
+    subject_id   BIGINT       NOT NULL,
+    max_points   INTEGER      NOT NULL,
+    order_number INTEGER      NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    CONSTRAINT lab_templates_pkey PRIMARY KEY (id),
+    CONSTRAINT fks891n0iu0bna45lbxspja596d FOREIGN KEY (subject_id) REFERENCES subjects (id)
+);
+
+CREATE TABLE IF NOT EXISTS lab_submissions (
+    id              BIGINT       NOT NULL,
+    lab_template_id BIGINT       NOT NULL,
+    student_id      BIGINT       NOT NULL,
+    points          INTEGER      NOT NULL,
+    comment         TEXT,
+    status          VARCHAR(255) NOT NULL,
+    submitted_at    TIMESTAMP(6) NOT NULL,
+    graded_at       TIMESTAMP(6),
+    CONSTRAINT lab_submissions_pkey PRIMARY KEY (id),
+    CONSTRAINT lab_submissions_status_check CHECK (status IN ('PENDING', 'GRADED', 'REJECTED')),
+    CONSTRAINT fk40hlknudqcny3lfdthchrs6d1 FOREIGN KEY (lab_template_id) REFERENCES lab_templates (id),
+    CONSTRAINT fkiqdi7k5gaa2buoanagkupbk0 FOREIGN KEY (student_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS grades (
+    id          BIGINT       NOT NULL,
+    student_id  BIGINT       NOT NULL,
+    subject_id  BIGINT       NOT NULL,
+    value       INTEGER      NOT NULL,
+    description VARCHAR(255),
+    created_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT grades_pkey PRIMARY KEY (id),
+    CONSTRAINT fk2udi8qqpoqmopyp47iy76jeq6 FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fkrc0s5tgvm9r4ccxitaqtu88k5 FOREIGN KEY (subject_id) REFERENCES subjects (id)
+);
+
+CREATE TABLE IF NOT EXISTS attendance (
+    id         BIGINT       NOT NULL,
+    student_id BIGINT       NOT NULL,
+    subject_id BIGINT       NOT NULL,
+    date       DATE         NOT NULL,
+    present    BOOLEAN      NOT NULL,
+    note       VARCHAR(255),
+    CONSTRAINT attendance_pkey PRIMARY KEY (id),
+    CONSTRAINT fk80qpvlsg0xpmw80bnk64avvou FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fkcjg1qkkmmy4dtktcdug457x4p FOREIGN KEY (subject_id) REFERENCES subjects (id)
+);
+
+CREATE TABLE IF NOT EXISTS attestations (
+    id         BIGINT       NOT NULL,
+    student_id BIGINT       NOT NULL,
+    subject_id BIGINT       NOT NULL,
+    type       VARCHAR(255) NOT NULL,
+    passed     BOOLEAN      NOT NULL,
+    comment    VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT attestations_pkey PRIMARY KEY (id),
+    CONSTRAINT attestations_type_check CHECK (type IN ('FIRST', 'SECOND', 'FINAL')),
+    CONSTRAINT fkcc0qlrnr31oc0wuwe50ophhq5 FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fkdw04rh6cuo96xdqb3p6x1rtqn FOREIGN KEY (subject_id) REFERENCES subjects (id)
+);
+
+-- Read model maintained by StudentSummaryService and backfilled by DataInitializer
+-- while empty; no foreign keys, rows are removed explicitly together with their
+-- student or subject
+CREATE TABLE IF NOT EXISTS student_subject_summaries (
+    id                        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    student_id                BIGINT       NOT NULL,
+    subject_id                BIGINT       NOT NULL,
+    grade_sum                 BIGINT       NOT NULL,
+    grade_count               BIGINT       NOT NULL,
+    labs_completed            BIGINT       NOT NULL,
+    labs_total                BIGINT       NOT NULL,
+    lab_points_earned         BIGINT       NOT NULL,
+    lab_points_possible       BIGINT       NOT NULL,
+    classes_attended          BIGINT       NOT NULL,
+    classes_total             BIGINT       NOT NULL,
+    first_attestation_passed  BOOLEAN,
+    second_attestation_passed BOOLEAN,
+    final_attestation_passed  BOOLEAN,
+    updated_at                TIMESTAMP(6) NOT NULL,
+    CONSTRAINT student_subject_summaries_pkey PRIMARY KEY (id),
+    CONSTRAINT uk9l4kmjwwyu8vkx11ojjn5p81m UNIQUE (student_id, subject_id)
+);
+
+-- Databases from before the pooled sequences still fill ids from bigserial defaults
+-- (<table>_id_seq). Ids now come from <table>_seq, which afterMigrate.sql moves past
+-- the existing rows.
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE subjects ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE teacher_subjects ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE lab_templates ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE lab_submissions ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE grades ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE attendance ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE attestations ALTER COLUMN id DROP DEFAULT;
+
+DROP SEQUENCE IF EXISTS users_id_seq;
+DROP SEQUENCE IF EXISTS subjects_id_seq;
+DROP SEQUENCE IF EXISTS teacher_subjects_id_seq;
+DROP SEQUENCE IF EXISTS lab_templates_id_seq;
+DROP SEQUENCE IF EXISTS lab_submissions_id_seq;
+DROP SEQUENCE IF EXISTS grades_id_seq;
+DROP SEQUENCE IF EXISTS attendance_id_seq;
+DROP SEQUENCE IF EXISTS attestations_id_seq;
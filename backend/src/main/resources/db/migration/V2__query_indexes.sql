@@ -0,0 +1,44 @@
+-- Indexes behind the per-student and per-subject lookups. Databases baselined from
+-- ddl-auto may already have some of them, hence IF NOT EXISTS.
+
+CREATE INDEX IF NOT EXISTS idx_grades_student_id ON grades (student_id);
+CREATE INDEX IF NOT EXISTS idx_grades_subject_id ON grades (subject_id);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_student_id ON attendance (student_id);
+CREATE INDEX IF NOT EXISTS idx_attendance_subject_id ON attendance (subject_id);
+
+CREATE INDEX IF NOT EXISTS idx_attestations_student_id ON attestations (student_id);
+CREATE INDEX IF NOT EXISTS idx_attestations_subject_id ON attestations (subject_id);
+
+CREATE INDEX IF NOT EXISTS idx_lab_templates_subject_id ON lab_templates (subject_id);
+
+CREATE INDEX IF NOT EXISTS idx_lab_submissions_template_student ON lab_submissions (lab_template_id, student_id);
+CREATE INDEX IF NOT EXISTS idx_lab_submissions_student_id ON lab_submissions (student_id);
+
+CREATE INDEX IF NOT EXISTS idx_users_role ON users (role);
+
+-- A teacher is subscribed to a subject at most once; keep the oldest duplicate.
+-- The unique index also serves lookups by teacher_id.
+DELETE FROM teacher_subjects ts
+WHERE EXISTS (SELECT 1 FROM teacher_subjects d
+              WHERE d.teacher_id = ts.teacher_id AND d.subject_id = ts.subject_id AND d.id < ts.id);
+ALTER TABLE teacher_subjects
+    ADD CONSTRAINT uk_teacher_subjects_teacher_subject UNIQUE (teacher_id, subject_id);
+DROP INDEX IF EXISTS idx_teacher_subjects_teacher_id;
+CREATE INDEX IF NOT EXISTS idx_teacher_subjects_subject_id ON teacher_subjects (subject_id);
+
+-- One attendance mark per student, subject and day; keep the latest duplicate.
+-- Removing one leaves the summaries stale, so they are cleared and DataInitializer
+-- rebuilds them on start.
+WITH removed AS (
+    DELETE FROM attendance
+    WHERE id IN (SELECT id FROM (SELECT id, row_number() OVER (PARTITION BY student_id, subject_id, date
+                                                               ORDER BY id DESC) AS n
+                                 FROM attendance) ranked
+                 WHERE n > 1)
+    RETURNING id
+)
+DELETE FROM student_subject_summaries WHERE EXISTS (SELECT 1 FROM removed);
+ALTER TABLE attendance DROP CONSTRAINT IF EXISTS uk_attendance_student_subject_date;
+ALTER TABLE attendance
+    ADD CONSTRAINT uk_attendance_student_subject_date UNIQUE (student_id, subject_id, date);
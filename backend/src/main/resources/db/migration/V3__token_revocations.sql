@@ -0,0 +1,7 @@
+-- Tokens of an account issued before revoked_at are refused (TokenRevocations).
+-- Keyed by email, the token subject, so a deleted account keeps its row.
+CREATE TABLE token_revocations (
+    email      VARCHAR(255) NOT NULL,
+    revoked_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT token_revocations_pkey PRIMARY KEY (email)
+);
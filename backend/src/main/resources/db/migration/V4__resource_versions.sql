@@ -0,0 +1,11 @@
+-- Version counters behind the ETags of the read endpoints (ResourceVersionService).
+-- kind: 'sb' subject, 'st' student, 'ref' reference data, 'any' every write; key is
+-- the subject or student id, 0 for the last two. A missing row is version 0.
+-- Rows are bumped inside the writing transaction, so every instance sees a new
+-- version exactly when the data it stands for commits.
+CREATE TABLE resource_versions (
+    kind    VARCHAR(3) NOT NULL,
+    key     BIGINT     NOT NULL,
+    version BIGINT     NOT NULL,
+    CONSTRAINT resource_versions_pkey PRIMARY KEY (kind, key)
+);
@@ -0,0 +1,13 @@
+-- Single-use tickets that open an event stream (StreamTickets). EventSource cannot
+-- send headers, so the ticket goes into the URL instead of the bearer token; it is
+-- deleted when redeemed and only valid for a few seconds. token_issued_at is the iat
+-- of the token it was issued for, so revoking that token also voids the ticket.
+CREATE TABLE stream_tickets (
+    ticket          VARCHAR(64)  NOT NULL,
+    user_id         BIGINT       NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    role            VARCHAR(32)  NOT NULL,
+    token_issued_at BIGINT       NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT stream_tickets_pkey PRIMARY KEY (ticket)
+);
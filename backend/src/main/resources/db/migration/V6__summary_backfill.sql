@@ -0,0 +1,17 @@
+-- Marks student_subject_summaries as complete (StudentSummaryService). The table is
+-- no longer backfilled on start; until POST /api/admin/summaries/rebuild has run,
+-- dashboards are computed from the source tables. V2 may have cleared the summaries
+-- of an existing database; a fresh one, or one whose summaries were already
+-- rebuilt, is complete from the start.
+CREATE TABLE summary_backfill (
+    id           INTEGER      NOT NULL,
+    completed_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT summary_backfill_pkey PRIMARY KEY (id),
+    CONSTRAINT summary_backfill_single_row CHECK (id = 1)
+);
+
+INSERT INTO summary_backfill (id, completed_at)
+SELECT 1, now()
+WHERE EXISTS (SELECT 1 FROM student_subject_summaries)
+   OR NOT (EXISTS (SELECT 1 FROM grades) OR EXISTS (SELECT 1 FROM attendance)
+           OR EXISTS (SELECT 1 FROM lab_submissions) OR EXISTS (SELECT 1 FROM attestations));
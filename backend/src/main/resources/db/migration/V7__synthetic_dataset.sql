@@ -0,0 +1,10 @@
+-- Completion marker of the synthetic dataset (SyntheticDataGenerator, dataset
+-- profile). The generator commits batch by batch, so generated rows alone do not
+-- mean the dataset is whole; the row is written only after its last step.
+CREATE TABLE synthetic_dataset (
+    id           INTEGER      NOT NULL,
+    seed         BIGINT       NOT NULL,
+    completed_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT synthetic_dataset_pkey PRIMARY KEY (id),
+    CONSTRAINT synthetic_dataset_single_row CHECK (id = 1)
+);
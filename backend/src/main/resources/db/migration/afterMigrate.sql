@@ -0,0 +1,39 @@
+-- Entity ids come from pooled sequences (<table>_seq, allocation size 50).
+-- Move each sequence past the ids already in its table, e.g. rows written while
+-- the tables still used identity columns, so existing ids are kept as they are.
+-- Flyway callback: runs after every migrate, i.e. on every start; a sequence is
+-- only ever moved forward. The value is set as called, so the next block starts
+-- above it even for a sequence that was never used: a fresh one reports
+-- last_value 1, which must not pass for "already past" a table holding id 1.
+
+SELECT setval('users_seq', GREATEST(m.max_id, s.last_value), true)
+FROM (SELECT MAX(id) AS max_id FROM users) m, users_seq s
+WHERE m.max_id IS NOT NULL;
+
+SELECT setval('subjects_seq', GREATEST(m.max_id, s.last_value), true)
+FROM (SELECT MAX(id) AS max_id FROM subjects) m, subjects_seq s
+WHERE m.max_id IS NOT NULL;
+
+SELECT setval('teacher_subjects_seq', GREATEST(m.max_id, s.last_value), true)
+FROM (SELECT MAX(id) AS max_id FROM teacher_subjects) m, teacher_subjects_seq s
+WHERE m.max_id IS NOT NULL;
+
+SELECT setval('lab_templates_seq', GREATEST(m.max_id, s.last_value), true)
+FROM (SELECT MAX(id) AS max_id FROM lab_templates) m, lab_templates_seq s
+WHERE m.max_id IS NOT NULL;
+
+SELECT setval('lab_submissions_seq', GREATEST(m.max_id, s.last_value), true)
+FROM (SELECT MAX(id) AS max_id FROM lab_submissions) m, lab_submissions_seq s
+WHERE m.max_id IS NOT NULL;
+
+SELECT setval('grades_seq', GREATEST(m.max_id, s.last_value), true)
+FROM (SELECT MAX(id) AS max_id FROM grades) m, grades_seq s
+WHERE m.max_id IS NOT NULL;
+
+SELECT setval('attendance_seq', GREATEST(m.max_id, s.last_value), true)
+FROM (SELECT MAX(id) AS max_id FROM attendance) m, attendance_seq s
+WHERE m.max_id IS NOT NULL;
+
+SELECT setval('attestations_seq', GREATEST(m.max_id, s.last_value), true)
+FROM (SELECT MAX(id) AS max_id FROM attestations) m, attestations_seq s
+WHERE m.max_id IS NOT NULL;
@@ -1,9 +1,15 @@
 import React, { useState, useEffect } from 'react';
 import { adminAPI } from '../services/api';
 
+const PAGE_SIZE = 50;
+const USER_ROLES = 'STUDENT,TEACHER';
+
 function AdminDashboard({ user, onLogout }) {
   const [activeTab, setActiveTab] = useState('users');
   const [users, setUsers] = useState([]);
+  const [usersCursor, setUsersCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [importing, setImporting] = useState(false);
   const [subjects, setSubjects] = useState([]);
   
   const [showModal, setShowModal] = useState(false);
@@ -20,10 +26,10 @@ function AdminDashboard({ user, onLogout }) {
     try {
       switch (activeTab) {
         case 'users':
-          const usersRes = await adminAPI.getUsers();
-          // Фильтруем админов из списка
-          const filteredUsers = usersRes.data.filter(u => u.role !== 'ADMIN');
-          setUsers(filteredUsers);
+          // Админов отфильтровывает сервер, список приходит страницами
+          const usersRes = await adminAPI.getUsers({ role: USER_ROLES, limit: PAGE_SIZE });
+          setUsers(usersRes.data.items);
+          setUsersCursor(usersRes.data.nextCursor);
           break;
         case 'subjects':
           const subjectsRes = await adminAPI.getSubjects();
@@ -40,6 +46,43 @@ function AdminDashboard({ user, onLogout }) {
     }
   };
 
+  const loadMoreUsers = async () => {
+    setLoadingMore(true);
+    try {
+      const usersRes = await adminAPI.getUsers({ role: USER_ROLES, limit: PAGE_SIZE, after: usersCursor });
+      setUsers([...users, ...usersRes.data.items]);
+      setUsersCursor(usersRes.data.nextCursor);
+    } catch (error) {
+      console.error('Error loading data:', error);
+      alert('Ошибка загрузки данных');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  const handleImport = async (e) => {
+    const file = e.target.files[0];
+    e.target.value = '';
+    if (!file) return;
+    setImporting(true);
+    try {
+      const format = file.name.toLowerCase().endsWith('.ndjson') ? 'ndjson' : 'csv';
+      const res = await adminAPI.importUsers(file, format);
+      // Отчёт — NDJSON: ошибки по строкам, прогресс и итоговая строка "done"
+      const events = res.data.split('\n').filter((line) => line.trim()).map((line) => JSON.parse(line));
+      const done = events.find((event) => event.type === 'done') || { created: 0, failed: 0 };
+      const errors = events.filter((event) => event.type === 'error').slice(0, 10)
+        .map((event) => `Строка ${event.line}: ${event.message}`);
+      alert(`Создано: ${done.created}, отклонено: ${done.failed}` + (errors.length ? '\n\n' + errors.join('\n') : ''));
+      loadData();
+    } catch (error) {
+      console.error('Error importing users:', error);
+      alert('Ошибка импорта');
+    } finally {
+      setImporting(false);
+    }
+  };
+
   const openModal = (item = null) => {
     setEditingItem(item);
     // При редактировании не включаем пароль в formData
@@ -151,6 +194,18 @@ function AdminDashboard({ user, onLogout }) {
                 + Добавить {activeTab === 'users' ? 'пользователя' : 'предмет'}
               </button>
             )}
+            {activeTab === 'users' && (
+              <label className="btn btn-primary" style={{ marginLeft: '10px' }}>
+                {importing ? 'Импорт...' : '📥 Импорт CSV/NDJSON'}
+                <input
+                  type="file"
+                  accept=".csv,.ndjson"
+                  onChange={handleImport}
+                  disabled={importing}
+                  style={{ display: 'none' }}
+                />
+              </label>
+            )}
 
             {loading ? (
               <div style={{ padding: '40px', textAlign: 'center', color: '#64748b' }}>
@@ -207,6 +262,13 @@ function AdminDashboard({ user, onLogout }) {
                         ))}
                       </tbody>
                     </table>
+                    {usersCursor && (
+                      <div style={{ marginTop: '15px', textAlign: 'center' }}>
+                        <button className="btn btn-primary" onClick={loadMoreUsers} disabled={loadingMore}>
+                          {loadingMore ? 'Загрузка...' : 'Показать ещё'}
+                        </button>
+                      </div>
+                    )}
                   </div>
                 )}
 
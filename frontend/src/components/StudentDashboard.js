@@ -14,6 +14,13 @@ function StudentDashboard({ user, onLogout }) {
     loadData();
   }, []);
 
+  // Сервер сообщает об изменениях (SSE); неизменившиеся ответы придут как 304 по ETag
+  useEffect(() => {
+    const events = studentAPI.subscribeChanges();
+    events.addEventListener('change', () => loadData());
+    return () => events.close();
+  }, []);
+
   const loadData = async () => {
     try {
       const [dashboardRes, gradesRes, labsRes, attendanceRes, attestationsRes, teachersRes] =
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useSearchParams } from 'react-router-dom';
-import { teacherAPI, studentAPI } from '../services/api';
+import { teacherAPI } from '../services/api';
 
 function TeacherDashboard({ user, onLogout }) {
   const [searchParams, setSearchParams] = useSearchParams();
@@ -22,6 +22,8 @@ function TeacherDashboard({ user, onLogout }) {
   const [loading, setLoading] = useState(true);
 
   const [hasRestoredFromUrl, setHasRestoredFromUrl] = useState(false);
+  // Увеличивается при событии об изменениях по выбранному предмету
+  const [subjectVersion, setSubjectVersion] = useState(0);
 
   useEffect(() => {
     loadData();
@@ -64,7 +66,17 @@ function TeacherDashboard({ user, onLogout }) {
     if (selectedSubject && activeTab === 'attestations') {
       loadAttestationsForSubject();
     }
-  }, [selectedSubject, activeTab]);
+  }, [selectedSubject, activeTab, subjectVersion]);
+
+  // Изменения по выбранному предмету приходят с сервера (SSE): перезагружаем открытую вкладку
+  useEffect(() => {
+    if (!selectedSubject) {
+      return undefined;
+    }
+    const events = teacherAPI.subscribeSubjectChanges(selectedSubject.id);
+    events.addEventListener('change', () => setSubjectVersion((version) => version + 1));
+    return () => events.close();
+  }, [selectedSubject]);
 
   // Обновляем URL при изменении выбранного предмета или вкладки (только после восстановления из URL)
   useEffect(() => {
@@ -96,18 +108,14 @@ function TeacherDashboard({ user, onLogout }) {
       // Load all lab templates for active courses
       await loadAllLabTemplatesForMyCourses(mySubjectsRes.data);
       
-      // Load attestations for all students (for statistics display)
+      // Load attestations for all my courses in one request (for statistics display)
       // Но не устанавливаем их в attestations, если есть выбранный предмет
       const subjectIdFromUrl = searchParams.get('subjectId');
-      const allAttestationsData = [];
-      for (const student of studentsRes.data) {
-        const res = await studentAPI.getAttestations(student.id);
-        allAttestationsData.push(...res.data);
-      }
-      setAllAttestations(allAttestationsData);
+      const attestationsRes = await teacherAPI.getAttestations({ teacherId: user.userId });
+      setAllAttestations(attestationsRes.data);
       // Устанавливаем в attestations только если нет выбранного предмета в URL
       if (!subjectIdFromUrl) {
-        setAttestations(allAttestationsData);
+        setAttestations(attestationsRes.data);
       }
     } catch (error) {
       console.error('Error loading data:', error);
@@ -116,17 +124,13 @@ function TeacherDashboard({ user, onLogout }) {
     }
   };
 
-  const loadAttestations = async (studentsList) => {
+  const loadAttestations = async () => {
     try {
-      const allAttestationsData = [];
-      for (const student of studentsList) {
-        const res = await studentAPI.getAttestations(student.id);
-        allAttestationsData.push(...res.data);
-      }
-      setAllAttestations(allAttestationsData);
+      const res = await teacherAPI.getAttestations({ teacherId: user.userId });
+      setAllAttestations(res.data);
       // Устанавливаем в attestations только если нет выбранного предмета
       if (!selectedSubject) {
-        setAttestations(allAttestationsData);
+        setAttestations(res.data);
       }
     } catch (error) {
       console.error('Error loading attestations:', error);
@@ -347,6 +351,18 @@ function TeacherDashboard({ user, onLogout }) {
           await teacherAPI.addAttendance(attendanceData);
         }
         loadAttendance();
+      } else if (modalType === 'attendanceClass') {
+        // Вся группа одним запросом: отмеченные галочкой присутствовали
+        const absentIds = formData.absentIds || [];
+        await teacherAPI.markAttendance({
+          subjectId: selectedSubject.id,
+          group: formData.group,
+          date: formData.date,
+          present: studentsOfGroup(formData.group).filter(s => !absentIds.includes(s.id)).map(s => s.id),
+          absent: absentIds,
+          note: formData.note || null,
+        });
+        loadAttendance();
       } else if (modalType === 'attestation') {
         const attestationData = {
           student: { id: parseInt(formData.student?.id || formData.studentId) },
@@ -362,12 +378,7 @@ function TeacherDashboard({ user, onLogout }) {
         }
         loadAttestationsForSubject();
         // Reload all attestations to update statistics
-        const allAttestationsData = [];
-        for (const student of students) {
-          const res = await studentAPI.getAttestations(student.id);
-          allAttestationsData.push(...res.data);
-        }
-        setAllAttestations(allAttestationsData);
+        await loadAttestations();
       }
       closeModal();
     } catch (error) {
@@ -377,6 +388,10 @@ function TeacherDashboard({ user, onLogout }) {
     }
   };
 
+  const studentGroups = [...new Set(students.map(s => s.studentGroup).filter(Boolean))].sort();
+
+  const studentsOfGroup = (group) => students.filter(s => group && s.studentGroup === group);
+
   const handleChange = (e) => {
     setFormData({
       ...formData,
@@ -436,12 +451,7 @@ function TeacherDashboard({ user, onLogout }) {
       await teacherAPI.deleteAttestation(id);
       loadAttestationsForSubject();
       // Reload all attestations to update statistics
-      const allAttestationsData = [];
-      for (const student of students) {
-        const res = await studentAPI.getAttestations(student.id);
-        allAttestationsData.push(...res.data);
-      }
-      setAllAttestations(allAttestationsData);
+      await loadAttestations();
     } catch (error) {
       console.error('Error deleting attestation:', error);
       alert('Ошибка при удалении');
@@ -815,9 +825,18 @@ function TeacherDashboard({ user, onLogout }) {
               <div>
                 <div style={{ marginBottom: '20px', display: 'flex', justifyContent: 'space-between', alignItems: 'center' }}>
                   <h3>Посещаемость: {selectedSubject.name}</h3>
-                  <button className="btn btn-primary" onClick={() => openModal('attendance')}>
-                    + Отметить посещение
-                  </button>
+                  <div>
+                    <button
+                      className="btn btn-primary"
+                      onClick={() => openModal('attendanceClass', { absentIds: [] })}
+                      style={{ marginRight: '10px' }}
+                    >
+                      + Отметить группу
+                    </button>
+                    <button className="btn btn-primary" onClick={() => openModal('attendance')}>
+                      + Отметить посещение
+                    </button>
+                  </div>
                 </div>
 
                 {attendance.length > 0 ? (
@@ -998,6 +1017,7 @@ function TeacherDashboard({ user, onLogout }) {
               {modalType === 'labSubmission' && 'Оценить работу студента'}
               {modalType === 'gradeSubmission' && 'Изменить оценку'}
               {modalType === 'attendance' && (formData.id ? 'Редактировать посещение' : 'Отметить посещение')}
+              {modalType === 'attendanceClass' && 'Отметить посещение группы'}
               {modalType === 'attestation' && (formData.id ? 'Редактировать аттестацию' : 'Добавить аттестацию')}
             </div>
 
@@ -1177,6 +1197,69 @@ function TeacherDashboard({ user, onLogout }) {
                 </>
               )}
 
+              {modalType === 'attendanceClass' && (
+                <>
+                  <div className="form-group">
+                    <label className="form-label">Группа</label>
+                    <select
+                      name="group"
+                      className="form-select"
+                      required
+                      value={formData.group || ''}
+                      onChange={(e) => setFormData({ ...formData, group: e.target.value, absentIds: [] })}
+                    >
+                      <option value="">Выберите группу</option>
+                      {studentGroups.map((group) => (
+                        <option key={group} value={group}>{group}</option>
+                      ))}
+                    </select>
+                  </div>
+                  <div className="form-group">
+                    <label className="form-label">Дата</label>
+                    <input 
+                      type="date" 
+                      name="date" 
+                      className="form-control" 
+                      value={formData.date || ''}
+                      required 
+                      onChange={handleChange} 
+                    />
+                  </div>
+                  <div className="form-group">
+                    <label className="form-label">Присутствовали</label>
+                    {studentsOfGroup(formData.group).map((student) => (
+                      <label key={student.id} style={{ display: 'block' }}>
+                        <input
+                          type="checkbox"
+                          checked={!(formData.absentIds || []).includes(student.id)}
+                          onChange={(e) => {
+                            const absentIds = formData.absentIds || [];
+                            setFormData({
+                              ...formData,
+                              absentIds: e.target.checked
+                                ? absentIds.filter(id => id !== student.id)
+                                : [...absentIds, student.id],
+                            });
+                          }}
+                          style={{ marginRight: '8px' }}
+                        />
+                        {student.firstName} {student.lastName}
+                      </label>
+                    ))}
+                  </div>
+                  <div className="form-group">
+                    <label className="form-label">Примечание</label>
+                    <input 
+                      type="text" 
+                      name="note" 
+                      className="form-control" 
+                      value={formData.note || ''}
+                      onChange={handleChange} 
+                    />
+                  </div>
+                </>
+              )}
+
               {modalType === 'attendance' && (
                 <>
                   <div className="form-group">
@@ -1,6 +1,6 @@
 import axios from 'axios';
 
-const API_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
+const API_URL = process.env.REACT_APP_API_URL || '/api';
 
 const api = axios.create({
   baseURL: API_URL,
@@ -17,6 +17,64 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
+// Server-sent events: EventSource cannot send headers, so each connection is opened
+// with a single-use ticket instead of the token. A ticket cannot be reused, so
+// reconnects fetch a new one; listeners carry over to the new connection.
+const openEvents = (path) => {
+  const listeners = [];
+  let source = null;
+  let retry = null;
+  let closed = false;
+
+  const connect = () => {
+    api.post('/auth/stream-ticket')
+      .then((response) => {
+        if (closed) {
+          return;
+        }
+        source = new EventSource(`${API_URL}${path}?ticket=${encodeURIComponent(response.data.ticket)}`);
+        listeners.forEach(([type, listener]) => source.addEventListener(type, listener));
+        source.onerror = () => {
+          if (source.readyState === EventSource.CLOSED) {
+            reconnect();
+          }
+        };
+      })
+      .catch((error) => {
+        const status = error.response && error.response.status;
+        if (status !== 401 && status !== 403) {
+          reconnect();
+        }
+      });
+  };
+
+  const reconnect = () => {
+    if (!closed && !retry) {
+      retry = setTimeout(() => {
+        retry = null;
+        connect();
+      }, 5000);
+    }
+  };
+
+  connect();
+  return {
+    addEventListener: (type, listener) => {
+      listeners.push([type, listener]);
+      if (source) {
+        source.addEventListener(type, listener);
+      }
+    },
+    close: () => {
+      closed = true;
+      clearTimeout(retry);
+      if (source) {
+        source.close();
+      }
+    },
+  };
+};
+
 export const authAPI = {
   login: (email, password) => api.post('/auth/login', { email, password }),
   register: (userData) => api.post('/auth/register', userData),
@@ -26,6 +84,8 @@ export const studentAPI = {
   getGrades: (studentId) => api.get(`/student/${studentId}/grades`),
   getLabs: (studentId) => api.get(`/student/${studentId}/labs`),
   getLabTemplates: (studentId) => api.get(`/student/${studentId}/lab-templates`),
+  // "change" events { subjectId, kinds } for the logged-in student
+  subscribeChanges: () => openEvents('/student/events'),
   getLabTemplatesBySubject: (studentId, subjectId) => api.get(`/student/${studentId}/lab-templates/subject/${subjectId}`),
   getAttendance: (studentId) => api.get(`/student/${studentId}/attendance`),
   getAttestations: (studentId) => api.get(`/student/${studentId}/attestations`),
@@ -38,6 +98,8 @@ export const teacherAPI = {
   getStudents: () => api.get('/teacher/students'),
   getSubjects: () => api.get('/teacher/subjects'),
   getMySubjects: (teacherId) => api.get('/teacher/subjects/my', { params: { teacherId } }),
+  // "change" events { subjectId, studentIds, kinds } for one subject
+  subscribeSubjectChanges: (subjectId) => openEvents(`/teacher/subjects/${subjectId}/events`),
   subscribeToSubject: (subjectId, teacherId) => api.post(`/teacher/subjects/${subjectId}/subscribe`, null, { params: { teacherId } }),
   unsubscribeFromSubject: (subjectId, teacherId) => api.delete(`/teacher/subjects/${subjectId}/unsubscribe`, { params: { teacherId } }),
   
@@ -60,9 +122,11 @@ export const teacherAPI = {
   
   getAttendanceBySubject: (subjectId) => api.get(`/teacher/attendance/subject/${subjectId}`),
   addAttendance: (attendance) => api.post('/teacher/attendance', attendance),
+  markAttendance: (classAttendance) => api.post('/teacher/attendance/bulk', classAttendance),
   updateAttendance: (id, attendance) => api.put(`/teacher/attendance/${id}`, attendance),
   deleteAttendance: (id) => api.delete(`/teacher/attendance/${id}`),
   
+  getAttestations: (params) => api.get('/teacher/attestations', { params }),
   getAttestationsBySubject: (subjectId) => api.get(`/teacher/attestations/subject/${subjectId}`),
   addAttestation: (attestation) => api.post('/teacher/attestations', attestation),
   updateAttestation: (id, attestation) => api.put(`/teacher/attestations/${id}`, attestation),
@@ -71,8 +135,15 @@ export const teacherAPI = {
 
 export const adminAPI = {
   // Users
-  getUsers: () => api.get('/admin/users'),
+  // List endpoints are keyset-paged: { items, nextCursor }, pass nextCursor back as `after`
+  getUsers: (params) => api.get('/admin/users', { params }),
   createUser: (user) => api.post('/admin/users', user),
+  // Bulk import: body is the CSV/NDJSON file, the response is an NDJSON report
+  importUsers: (file, format) => api.post('/admin/users/import', file, {
+    params: { format },
+    headers: { 'Content-Type': format === 'ndjson' ? 'application/x-ndjson' : 'text/csv' },
+    responseType: 'text',
+  }),
   updateUser: (id, user) => api.put(`/admin/users/${id}`, user),
   deleteUser: (id) => api.delete(`/admin/users/${id}`),
   
@@ -83,7 +154,7 @@ export const adminAPI = {
   deleteSubject: (id) => api.delete(`/admin/subjects/${id}`),
   
   // Grades
-  getGrades: () => api.get('/admin/grades'),
+  getGrades: (params) => api.get('/admin/grades', { params }),
   updateGrade: (id, grade) => api.put(`/admin/grades/${id}`, grade),
   deleteGrade: (id) => api.delete(`/admin/grades/${id}`),
   
@@ -95,18 +166,18 @@ export const adminAPI = {
   deleteLabTemplate: (id) => api.delete(`/admin/lab-templates/${id}`),
   
   // Lab Submissions
-  getLabSubmissions: () => api.get('/admin/lab-submissions'),
+  getLabSubmissions: (params) => api.get('/admin/lab-submissions', { params }),
   getLabSubmissionsByStudent: (studentId) => api.get(`/admin/lab-submissions/student/${studentId}`),
   updateLabSubmission: (id, labSubmission) => api.put(`/admin/lab-submissions/${id}`, labSubmission),
   deleteLabSubmission: (id) => api.delete(`/admin/lab-submissions/${id}`),
   
   // Attendance
-  getAttendance: () => api.get('/admin/attendance'),
+  getAttendance: (params) => api.get('/admin/attendance', { params }),
   updateAttendance: (id, attendance) => api.put(`/admin/attendance/${id}`, attendance),
   deleteAttendance: (id) => api.delete(`/admin/attendance/${id}`),
   
   // Attestations
-  getAttestations: () => api.get('/admin/attestations'),
+  getAttestations: (params) => api.get('/admin/attestations', { params }),
   updateAttestation: (id, attestation) => api.put(`/admin/attestations/${id}`, attestation),
   deleteAttestation: (id) => api.delete(`/admin/attestations/${id}`),
 };
@@ -23,7 +23,7 @@ Write-Host "🎉 Application started successfully!" -ForegroundColor Green
 Write-Host ""
 Write-Host "Access the application at:" -ForegroundColor Cyan
 Write-Host "  Frontend: http://localhost:3000" -ForegroundColor White
-Write-Host "  Backend API: http://localhost:8080" -ForegroundColor White
+Write-Host "  Backend API: http://localhost:3000/api" -ForegroundColor White
 Write-Host "  Database: localhost:5432" -ForegroundColor White
 Write-Host ""
 Write-Host "Test accounts:" -ForegroundColor Cyan
@@ -24,7 +24,7 @@ echo "🎉 Application started successfully!"
 echo ""
 echo "Access the application at:"
 echo "  Frontend: http://localhost:3000"
-echo "  Backend API: http://localhost:8080"
+echo "  Backend API: http://localhost:3000/api"
 echo "  Database: localhost:5432"
 echo ""
 echo "Test accounts:"